@@ -0,0 +1,8 @@
+-- pgbench custom script: one registration-shaped insert per transaction
+\set n random(1, 1000000000)
+INSERT INTO auth.user (email, password, role, enabled, account_non_expired, account_non_locked,
+                       credentials_non_expired, created_at, updated_at)
+VALUES ('bench-' || :client_id || '-' || :n || '-' || txid_current() || '@example.com',
+        '$2a$10$abcdefghijklmnopqrstuuJ6Qy5wz3H8xGv0cO1b4m7QeX0sS1yK', 'USER', false,
+        true, true, true, now(), now())
+ON CONFLICT DO NOTHING;
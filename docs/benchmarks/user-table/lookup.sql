@@ -0,0 +1,3 @@
+-- pgbench custom script: login-shaped lookup by email
+\set n random(1, 100000)
+SELECT id, email, password, enabled FROM auth.user WHERE email = 'seed-' || :n || '@example.com';
@@ -0,0 +1,9 @@
+-- Seeds 100k users (10% unverified) for the lookup benchmark; run once per schema version
+INSERT INTO auth.user (email, password, role, enabled, account_non_expired, account_non_locked,
+                       credentials_non_expired, created_at, updated_at)
+SELECT 'seed-' || g || '@example.com',
+       '$2a$10$abcdefghijklmnopqrstuuJ6Qy5wz3H8xGv0cO1b4m7QeX0sS1yK', 'USER', g % 10 <> 0,
+       true, true, true, now() - (g || ' minutes')::interval, now()
+FROM generate_series(1, 100000) AS g
+ON CONFLICT DO NOTHING;
+ANALYZE auth.user;
@@ -0,0 +1,10 @@
+-- wrk script: POST /api/auth/send-code for rotating seeded users (seed-1..seed-100000@example.com)
+local counter = 0
+
+request = function()
+  counter = counter + 1
+  local n = (counter * 7919 + math.random(0, 99999)) % 100000 + 1
+  return wrk.format("POST", "/api/auth/send-code",
+    { ["Content-Type"] = "application/json" },
+    '{"email":"seed-' .. n .. '@example.com"}')
+end
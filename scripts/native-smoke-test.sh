@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+# Smoke test for the native executable (or the JVM jar, for comparison):
+# register -> read OTP from Mailpit -> verify -> PKCE login -> token exchange.
+# Reports startup time to the first successful HTTP response and resident memory after the flow.
+#
+# Usage: scripts/native-smoke-test.sh native|jvm
+# Expects Postgres, Redis and Mailpit (SMTP 1025, API 8025) running and the usual datasource settings
+# exported in the environment. Requires curl, jq and openssl.
+#
+# No native vs. JVM figures have been recorded yet: the native profile has not been built with GraalVM and run
+# against the backing services. Run both modes on the same host and note the two result lines alongside the
+# GraalVM and JDK versions before relying on the native image for startup or memory.
+set -euo pipefail
+
+MODE=${1:-native}
+BASE=${BASE_URL:-http://localhost:9001}
+MAILPIT=${MAILPIT_URL:-http://localhost:8025}
+REDIRECT_URI=${WEBAPP_REDIRECT_URI:-http://localhost:5173/auth/callback}
+EMAIL="smoke-$(date +%s)-$RANDOM@example.com"
+PASSWORD='Sm0ke-Test!'
+
+export MAIL_PORT=${MAIL_PORT:-1025} MAIL_SMTP_AUTH=false MAIL_SMTP_STARTTLS=false
+export CONFIG_SERVER_URI=${CONFIG_SERVER_URI:-http://localhost:8888} SPRING_PROFILES_ACTIVE=${SPRING_PROFILES_ACTIVE:-default}
+
+case "$MODE" in
+  native) CMD=(target/auth-service) ;;
+  jvm)    CMD=(java -jar target/app.jar) ;;
+  *)      echo "mode must be native or jvm" >&2; exit 2 ;;
+esac
+
+fail() { echo "FAIL: $*" >&2; exit 1; }
+now_ms() { date +%s%3N; }
+
+start=$(now_ms)
+"${CMD[@]}" > "target/smoke-$MODE.log" 2>&1 &
+pid=$!
+trap 'kill "$pid" 2>/dev/null || true' EXIT
+
+until curl -sf -o /dev/null "$BASE/login"; do
+  kill -0 "$pid" 2>/dev/null || fail "process exited, see target/smoke-$MODE.log"
+  (( $(now_ms) - start < 120000 )) || fail "not up within 120s"
+  sleep 0.05
+done
+startup_ms=$(( $(now_ms) - start ))
+
+json() { curl -sf -H 'Content-Type: application/json' -d "$2" "$BASE$1"; }
+
+# 1. Register and fetch the OTP from Mailpit
+json /api/auth/register "{\"email\":\"$EMAIL\",\"password\":\"$PASSWORD\",\"confirmPassword\":\"$PASSWORD\"}" \
+  > /dev/null || fail "register"
+code=""
+for _ in $(seq 1 50); do
+  id=$(curl -sf "$MAILPIT/api/v1/search?query=to:$EMAIL" | jq -r '.messages[0].ID // empty')
+  if [[ -n "$id" ]]; then
+    code=$(curl -sf "$MAILPIT/api/v1/message/$id" | jq -r '.Text' | grep -oE '[0-9]{8}' | head -1)
+    break
+  fi
+  sleep 0.1
+done
+[[ -n "$code" ]] || fail "no OTP email"
+
+# 2. Verify
+json /api/auth/verify-code "{\"email\":\"$EMAIL\",\"code\":\"$code\",\"activateUser\":true}" \
+  > /dev/null || fail "verify"
+
+# 3. Authorization code + PKCE through the login form
+jar=$(mktemp)
+verifier=$(openssl rand -base64 48 | tr -d '=+/\n' | cut -c1-64)
+challenge=$(printf '%s' "$verifier" | openssl dgst -sha256 -binary | openssl base64 | tr '+/' '-_' | tr -d '=\n')
+authorize="$BASE/oauth2/authorize?response_type=code&client_id=webapp&scope=openid&redirect_uri=$REDIRECT_URI&code_challenge=$challenge&code_challenge_method=S256"
+
+curl -s -c "$jar" -b "$jar" -o /dev/null "$authorize"
+curl -s -c "$jar" -b "$jar" -o /dev/null --data-urlencode "username=$EMAIL" --data-urlencode "password=$PASSWORD" "$BASE/login"
+location=$(curl -s -c "$jar" -b "$jar" -o /dev/null -w '%{redirect_url}' "$authorize")
+auth_code=$(sed -n 's/.*[?&]code=\([^&]*\).*/\1/p' <<< "$location")
+rm -f "$jar"
+[[ -n "$auth_code" ]] || fail "no authorization code (redirect: $location)"
+
+# 4. Token
+token=$(curl -sf -d "grant_type=authorization_code&client_id=webapp&code=$auth_code&redirect_uri=$REDIRECT_URI&code_verifier=$verifier" \
+  "$BASE/oauth2/token" | jq -r '.access_token // empty')
+[[ -n "$token" ]] || fail "token exchange"
+
+rss_kb=$(awk '/VmRSS/ { print $2 }' "/proc/$pid/status")
+echo "OK ($MODE): startup ${startup_ms} ms, RSS after flow $(( rss_kb / 1024 )) MB"
@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Measures time from `docker run` to the first access token issued by /oauth2/token (client_credentials).
+#
+# Usage: scripts/startup-benchmark.sh <image> [runs]
+# The container needs the usual environment (datasource, Redis, config server); pass it via BENCH_ENV_FILE.
+set -euo pipefail
+
+IMAGE=${1:?image required}
+RUNS=${2:-5}
+PORT=${BENCH_PORT:-9001}
+ENV_FILE=${BENCH_ENV_FILE:-.env}
+CLIENT_ID=${BENCH_CLIENT_ID:-gateway}
+CLIENT_SECRET=${BENCH_CLIENT_SECRET:-${GATEWAY_CLIENT_SECRET:-gateway-secret}}
+TIMEOUT_S=${BENCH_TIMEOUT_S:-120}
+
+now_ms() { date +%s%3N; }
+
+results=()
+for run in $(seq 1 "$RUNS"); do
+  start=$(now_ms)
+  cid=$(docker run -d --rm --env-file "$ENV_FILE" -p "$PORT:9001" "$IMAGE")
+  trap 'docker rm -f "$cid" >/dev/null 2>&1 || true' EXIT
+
+  elapsed=""
+  while (( $(now_ms) - start < TIMEOUT_S * 1000 )); do
+    status=$(curl -s -o /dev/null -w '%{http_code}' -u "$CLIENT_ID:$CLIENT_SECRET" \
+      -d 'grant_type=client_credentials&scope=read' "http://localhost:$PORT/oauth2/token" || true)
+    if [[ "$status" == "200" ]]; then
+      elapsed=$(( $(now_ms) - start ))
+      break
+    fi
+    sleep 0.05
+  done
+
+  docker rm -f "$cid" >/dev/null
+  trap - EXIT
+  if [[ -z "$elapsed" ]]; then
+    echo "run $run: no token within ${TIMEOUT_S}s" >&2
+    exit 1
+  fi
+  echo "run $run: first token after ${elapsed} ms"
+  results+=("$elapsed")
+done
+
+printf '%s\n' "${results[@]}" | sort -n | awk '
+  { v[NR] = $1; sum += $1 }
+  END { printf "time-to-first-token: min %d ms, median %d ms, mean %d ms, max %d ms (%d runs)\n",
+        v[1], v[int((NR + 1) / 2)], sum / NR, v[NR], NR }'
@@ -0,0 +1,90 @@
+package com.easyshop.auth.benchmark;
+
+import com.easyshop.auth.model.dto.AuthDto;
+import com.easyshop.auth.model.dto.OtpSendDto;
+import com.easyshop.auth.model.dto.PasswordResetDto;
+import com.easyshop.auth.model.dto.VerifyCodeDto;
+import com.easyshop.auth.web.NormalizedEmail;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading a {@code /send-code} body with the email normalized by {@link NormalizedEmail} during
+ * deserialization, against the former {@code RequestNormalizationAdvice}: plain binding followed by an
+ * {@code instanceof} chain and {@code trim().toLowerCase()}. Run with {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EmailNormalizationBenchmark {
+
+    @Param({"user@example.com", "  John.Doe@Example.COM "})
+    public String email;
+
+    private ObjectMapper annotated;
+    private ObjectMapper plain;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        annotated = BenchmarkSupport.objectMapper();
+        // Ignores @NormalizedEmail, leaving normalization to the advice copy below
+        plain = JsonMapper.builder().disable(MapperFeature.USE_ANNOTATIONS).build();
+        body = ("{\"email\":\"" + email + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object annotation() throws Exception {
+        return annotated.readValue(body, OtpSendDto.class);
+    }
+
+    @Benchmark
+    public Object adviceBaseline() throws Exception {
+        return afterBodyRead(plain.readValue(body, OtpSendDto.class));
+    }
+
+    private static Object afterBodyRead(Object body) {
+        if (body instanceof AuthDto dto) {
+            dto.setEmail(normalize(dto.getEmail()));
+            return dto;
+        }
+        if (body instanceof OtpSendDto dto) {
+            dto.setEmail(normalize(dto.getEmail()));
+            return dto;
+        }
+        if (body instanceof VerifyCodeDto dto) {
+            dto.setEmail(normalize(dto.getEmail()));
+            return dto;
+        }
+        if (body instanceof PasswordResetDto dto) {
+            dto.setEmail(normalize(dto.getEmail()));
+            return dto;
+        }
+        return body;
+    }
+
+    private static String normalize(String email) {
+        if (email == null) {
+            return "";
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,74 @@
+package com.easyshop.auth.benchmark;
+
+import com.easyshop.auth.exception.BusinessException;
+import com.easyshop.auth.exception.ErrorCode;
+import com.easyshop.auth.exception.GlobalExceptionHandler;
+import com.easyshop.auth.model.dto.OtpSendDto;
+import com.easyshop.auth.model.dto.error.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+/**
+ * Error responses built by {@link GlobalExceptionHandler} for rejected requests, including the JSON
+ * serialization Spring MVC performs afterwards. Business errors are written from prepared bytes, so that
+ * path needs no serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ErrorResponseBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private ObjectMapper objectMapper;
+    private MockHttpServletRequest request;
+    private MethodArgumentNotValidException validationException;
+
+    @Setup
+    public void setUp() throws Exception {
+        handler = new GlobalExceptionHandler(new MockEnvironment());
+        objectMapper = BenchmarkSupport.objectMapper();
+        request = new MockHttpServletRequest("POST", "/api/auth/verify-code");
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new OtpSendDto(), "otpSendDto");
+        bindingResult.addError(new FieldError("otpSendDto", "email", "not-an-email", false,
+                new String[]{"Email.otpSendDto.email", "Email"}, null, "must be a well-formed email address"));
+        MethodParameter parameter = new MethodParameter(
+                ErrorResponseBenchmark.class.getDeclaredMethod("target", OtpSendDto.class), 0);
+        validationException = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public byte[] businessException() {
+        return handler.handleBusinessException(
+                BusinessException.of(ErrorCode.VERIFICATION_CODE_INVALID), request).getBody();
+    }
+
+    @Benchmark
+    public byte[] validationException() throws Exception {
+        ErrorResponse body = handler.handleValidationErrors(validationException, request).getBody();
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    @SuppressWarnings("unused")
+    private void target(OtpSendDto body) {
+    }
+}
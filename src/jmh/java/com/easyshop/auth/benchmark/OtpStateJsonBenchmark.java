@@ -0,0 +1,58 @@
+package com.easyshop.auth.benchmark;
+
+import com.easyshop.auth.model.OtpState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serialization cost of the Redis-stored OTP state ({@code OtpStateRepository.load/save}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class OtpStateJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private OtpState state;
+    private String json;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = BenchmarkSupport.objectMapper();
+        Instant now = Instant.parse("2025-01-01T10:00:00Z");
+        state = OtpState.empty()
+                .startOtp("12345678", now, Duration.ofMinutes(10), Duration.ofSeconds(120))
+                .incrementAttempts();
+        json = objectMapper.writeValueAsString(state);
+    }
+
+    @Benchmark
+    public String write() throws Exception {
+        return objectMapper.writeValueAsString(state);
+    }
+
+    @Benchmark
+    public OtpState read() throws Exception {
+        return objectMapper.readValue(json, OtpState.class);
+    }
+
+    @Benchmark
+    public OtpState roundTrip() throws Exception {
+        return objectMapper.readValue(objectMapper.writeValueAsString(state), OtpState.class);
+    }
+}
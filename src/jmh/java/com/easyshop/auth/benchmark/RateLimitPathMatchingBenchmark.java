@@ -0,0 +1,53 @@
+package com.easyshop.auth.benchmark;
+
+import com.easyshop.auth.security.IpRateLimiter;
+import com.easyshop.auth.tracing.AuthTracer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.env.MockEnvironment;
+
+/**
+ * Path check done by {@code IpRateLimiter} for every API request before touching Redis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RateLimitPathMatchingBenchmark {
+
+    @Param({"/api/auth/send-code", "/api/auth/send-code/", "/api/auth/login-info", "/oauth2/token"})
+    public String path;
+
+    private IpRateLimiter rateLimiter;
+    private MethodHandle isLimitedPath;
+
+    @Setup
+    public void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("easyshop.auth.rate-limit.window-seconds", "600")
+                .withProperty("easyshop.auth.rate-limit.max-requests", "10")
+                .withProperty("easyshop.auth.rate-limit.paths",
+                        "/api/auth/send-code,/api/auth/verify-code,/api/auth/reset-password,/api/auth/register");
+        rateLimiter = new IpRateLimiter(null, environment, new SimpleMeterRegistry(), AuthTracer.NOOP);
+        isLimitedPath = BenchmarkSupport.privateMethod(IpRateLimiter.class, "isLimitedPath", boolean.class, String.class);
+    }
+
+    @Benchmark
+    public boolean isLimitedPath() throws Throwable {
+        return (boolean) isLimitedPath.invoke(rateLimiter, path);
+    }
+}
@@ -0,0 +1,75 @@
+package com.easyshop.auth.benchmark;
+
+import com.easyshop.auth.model.entity.OAuth2Client;
+import com.easyshop.auth.repository.DatabaseRegisteredClientRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.invoke.MethodHandle;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.settings.ClientSettings;
+import org.springframework.security.oauth2.server.authorization.settings.TokenSettings;
+
+/**
+ * Cost of turning a stored {@code oauth2_clients} row into a {@link RegisteredClient}, paid on every
+ * authorize and token request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RegisteredClientConversionBenchmark {
+
+    private DatabaseRegisteredClientRepository repository;
+    private MethodHandle convert;
+    private OAuth2Client webappClient;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = BenchmarkSupport.objectMapper();
+        repository = new DatabaseRegisteredClientRepository(null, objectMapper, new SimpleMeterRegistry());
+        convert = BenchmarkSupport.privateMethod(DatabaseRegisteredClientRepository.class,
+                "convertToRegisteredClient", RegisteredClient.class, OAuth2Client.class);
+
+        // Same shape as the webapp client written by OAuth2ClientInitializer
+        webappClient = OAuth2Client.builder()
+                .id(1L)
+                .clientId("webapp")
+                .clientAuthenticationMethods(objectMapper.writeValueAsString(Set.of("none")))
+                .authorizationGrantTypes(objectMapper.writeValueAsString(Set.of("authorization_code", "refresh_token")))
+                .redirectUris(objectMapper.writeValueAsString(
+                        Set.of("http://localhost:5173/auth/callback", "http://localhost:5173")))
+                .scopes(objectMapper.writeValueAsString(Set.of("openid", "profile", "read", "write")))
+                .clientSettings(objectMapper.writeValueAsString(ClientSettings.builder()
+                        .requireAuthorizationConsent(false)
+                        .requireProofKey(true)
+                        .build().getSettings()))
+                .tokenSettings(objectMapper.writeValueAsString(TokenSettings.builder()
+                        .accessTokenTimeToLive(Duration.ofHours(1))
+                        .refreshTokenTimeToLive(Duration.ofDays(7))
+                        .idTokenSignatureAlgorithm(SignatureAlgorithm.RS256)
+                        .reuseRefreshTokens(true)
+                        .build().getSettings()))
+                .build();
+    }
+
+    @Benchmark
+    public RegisteredClient convertWebappClient() throws Throwable {
+        return (RegisteredClient) convert.invoke(repository, webappClient);
+    }
+}
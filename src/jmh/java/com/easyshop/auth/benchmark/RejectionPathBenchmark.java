@@ -0,0 +1,101 @@
+package com.easyshop.auth.benchmark;
+
+import com.easyshop.auth.exception.BusinessException;
+import com.easyshop.auth.exception.ErrorCode;
+import com.easyshop.auth.exception.GlobalExceptionHandler;
+import com.easyshop.auth.exception.RateLimitExceededException;
+import com.easyshop.auth.model.dto.error.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * A rejected request end to end: the exception is thrown {@code depth} frames below the handler, roughly
+ * the Spring MVC and filter chain, then rendered to response bytes. {@code stackTraceBaseline} is an
+ * exception that captures its stack trace and goes through {@link ErrorResponse} serialization, which is
+ * what every rejection cost before business exceptions became stackless.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RejectionPathBenchmark {
+
+    @Param({"20", "80"})
+    public int depth;
+
+    private GlobalExceptionHandler handler;
+    private ObjectMapper objectMapper;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        handler = new GlobalExceptionHandler(new MockEnvironment());
+        objectMapper = BenchmarkSupport.objectMapper();
+        request = new MockHttpServletRequest("POST", "/api/auth/verify-code");
+    }
+
+    @Benchmark
+    public byte[] preallocated() {
+        try {
+            throwAt(depth, () -> BusinessException.of(ErrorCode.VERIFICATION_CODE_INVALID));
+            return null;
+        } catch (BusinessException ex) {
+            return handler.handleBusinessException(ex, request).getBody();
+        }
+    }
+
+    @Benchmark
+    public byte[] rateLimited() {
+        try {
+            throwAt(depth, () -> new RateLimitExceededException(120, null));
+            return null;
+        } catch (BusinessException ex) {
+            return handler.handleBusinessException(ex, request).getBody();
+        }
+    }
+
+    @Benchmark
+    public byte[] stackTraceBaseline() throws Exception {
+        try {
+            throwAt(depth, () -> new IllegalStateException(ErrorCode.VERIFICATION_CODE_INVALID.getMessage()));
+            return null;
+        } catch (IllegalStateException ex) {
+            ErrorResponse body = ErrorResponse.builder()
+                    .detail(ex.getMessage())
+                    .errorCode(ErrorCode.VERIFICATION_CODE_INVALID.name())
+                    .status(HttpStatus.BAD_REQUEST.name())
+                    .statusCode(HttpStatus.BAD_REQUEST.value())
+                    .path(request.getRequestURI())
+                    .build();
+            return objectMapper.writeValueAsBytes(body);
+        }
+    }
+
+    private static void throwAt(int frames, ExceptionFactory factory) {
+        if (frames <= 0) {
+            throw factory.create();
+        }
+        throwAt(frames - 1, factory);
+    }
+
+    @FunctionalInterface
+    private interface ExceptionFactory {
+        RuntimeException create();
+    }
+}
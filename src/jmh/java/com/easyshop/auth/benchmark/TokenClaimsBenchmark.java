@@ -0,0 +1,80 @@
+package com.easyshop.auth.benchmark;
+
+import com.easyshop.auth.config.TokenCustomizationConfig;
+import com.easyshop.auth.model.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
+
+/**
+ * Claim building done by the token customizer for every issued access and ID token.
+ * A fresh claims builder is created per invocation, as the authorization server does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TokenClaimsBenchmark {
+
+    @Param({"access_token", "id_token"})
+    public String tokenType;
+
+    private OAuth2TokenCustomizer<JwtEncodingContext> customizer;
+    private Authentication principal;
+    private OAuth2TokenType type;
+
+    @Setup
+    public void setUp() {
+        customizer = new TokenCustomizationConfig().oauth2TokenCustomizer(new SimpleMeterRegistry());
+        User user = User.builder()
+                .id(1L)
+                .username("user@example.com")
+                .email("user@example.com")
+                .password("{noop}unused")
+                .build();
+        principal = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        type = new OAuth2TokenType(tokenType);
+    }
+
+    @Benchmark
+    public Map<String, Object> customize() {
+        Instant now = Instant.now();
+        JwtClaimsSet.Builder claims = JwtClaimsSet.builder()
+                .issuer("http://localhost:9001")
+                .subject("user@example.com")
+                .audience(List.of("webapp"))
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(3600));
+        JwtEncodingContext context = JwtEncodingContext.with(JwsHeader.with(SignatureAlgorithm.RS256), claims)
+                .principal(principal)
+                .tokenType(type)
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .build();
+        customizer.customize(context);
+        return claims.build().getClaims();
+    }
+}
@@ -0,0 +1,313 @@
+package com.easyshop.auth.loadtest;
+
+import com.easyshop.auth.loadtest.LoadTestSettings.Flow;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the service's end-to-end flows over HTTP the way the webapp, the gateway and a browser user do,
+ * timing every request as a separate step.
+ */
+final class AuthFlowClient {
+
+    static final String PASSWORD = "LoadTest1!pass";
+    private static final String NEW_PASSWORD = "LoadTest2!pass";
+    private static final String WEBAPP_REDIRECT_URI = "http://localhost:5173/auth/callback";
+    private static final String GATEWAY_CREDENTIALS = Base64.getEncoder()
+            .encodeToString("gateway:gateway-secret".getBytes(StandardCharsets.UTF_8));
+    private static final String SESSION_COOKIE = "JSESSIONID=";
+
+    private final URI baseUri;
+    private final LocalStandIns standIns;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SecureRandom random = new SecureRandom();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong accountSequence = new AtomicLong();
+
+    private final StepMetrics.Step authorize;
+    private final StepMetrics.Step login;
+    private final StepMetrics.Step authorizeRedirect;
+    private final StepMetrics.Step authorizationCodeToken;
+    private final StepMetrics.Step clientCredentialsToken;
+    private final StepMetrics.Step register;
+    private final StepMetrics.Step activate;
+    private final StepMetrics.Step sendCode;
+    private final StepMetrics.Step verifyCode;
+    private final StepMetrics.Step resetPassword;
+    private final Map<Flow, StepMetrics.Step> flows = new EnumMap<>(Flow.class);
+
+    AuthFlowClient(URI baseUri, LocalStandIns standIns, StepMetrics metrics) {
+        this.baseUri = baseUri;
+        this.standIns = standIns;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        this.authorize = metrics.step("authorize");
+        this.login = metrics.step("login");
+        this.authorizeRedirect = metrics.step("authorize (code)");
+        this.authorizationCodeToken = metrics.step("token (authorization_code)");
+        this.clientCredentialsToken = metrics.step("token (client_credentials)");
+        this.register = metrics.step("register");
+        this.activate = metrics.step("verify-code (activate)");
+        this.sendCode = metrics.step("send-code");
+        this.verifyCode = metrics.step("verify-code (reset)");
+        this.resetPassword = metrics.step("reset-password");
+        for (Flow flow : Flow.values()) {
+            flows.put(flow, metrics.step("flow " + flow.flowName()));
+        }
+    }
+
+    /**
+     * Runs one complete flow. A failing step is recorded on that step and ends the flow.
+     */
+    void run(Flow flow, List<String> activeUsers) {
+        long start = System.nanoTime();
+        try {
+            switch (flow) {
+                case AUTHORIZATION_CODE ->
+                        authorizationCode(activeUsers.get(ThreadLocalRandom.current().nextInt(activeUsers.size())));
+                case CLIENT_CREDENTIALS -> clientCredentials();
+                case ACCOUNT -> account();
+            }
+            flows.get(flow).record(start);
+        } catch (FlowAborted ex) {
+            flows.get(flow).error(ex.getMessage());
+        } catch (RuntimeException ex) {
+            // e.g. the OTP email never reached the sink
+            flows.get(flow).error(ex.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Registers and activates a new account, returning its email.
+     */
+    String createActiveAccount() {
+        String email = "lt-" + runId + "-" + accountSequence.incrementAndGet() + "@loadtest.local";
+        exchange(register, json("/api/auth/register", Map.of(
+                "email", email,
+                "password", PASSWORD,
+                "confirmPassword", PASSWORD)), 202);
+        exchange(activate, json("/api/auth/verify-code", Map.of(
+                "email", email,
+                "code", standIns.latestOtpCode(email),
+                "activateUser", true)), 204);
+        return email;
+    }
+
+    private void authorizationCode(String email) {
+        String verifier = randomToken(32);
+        String state = randomToken(16);
+        String authorizeQuery = form(Map.of(
+                "response_type", "code",
+                "client_id", "webapp",
+                "scope", "openid read",
+                "redirect_uri", WEBAPP_REDIRECT_URI,
+                "state", state,
+                "code_challenge", codeChallenge(verifier),
+                "code_challenge_method", "S256"));
+
+        // Unauthenticated: saves the request in a new session and redirects to the login page
+        HttpResponse<String> response = exchange(authorize, HttpRequest.newBuilder(
+                        baseUri.resolve("/oauth2/authorize?" + authorizeQuery))
+                .header("Accept", "text/html")
+                .GET()
+                .build(), 302);
+        String session = sessionCookie(response, null);
+
+        response = exchange(login, HttpRequest.newBuilder(baseUri.resolve("/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Cookie", session)
+                .POST(HttpRequest.BodyPublishers.ofString(form(Map.of("username", email, "password", PASSWORD))))
+                .build(), 302);
+        String savedRequest = location(response);
+        if (savedRequest.contains("error")) {
+            login.error("rejected credentials");
+            throw new FlowAborted("login rejected");
+        }
+        session = sessionCookie(response, session);
+
+        response = exchange(authorizeRedirect, HttpRequest.newBuilder(baseUri.resolve(savedRequest))
+                .header("Accept", "text/html")
+                .header("Cookie", session)
+                .GET()
+                .build(), 302);
+        String code = queryParameter(URI.create(location(response)), "code");
+        if (code == null) {
+            authorizeRedirect.error("no code in redirect");
+            throw new FlowAborted("no authorization code");
+        }
+
+        HttpResponse<String> token = exchange(authorizationCodeToken, HttpRequest.newBuilder(baseUri.resolve("/oauth2/token"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form(Map.of(
+                        "grant_type", "authorization_code",
+                        "code", code,
+                        "redirect_uri", WEBAPP_REDIRECT_URI,
+                        "client_id", "webapp",
+                        "code_verifier", verifier))))
+                .build(), 200);
+        requireField(authorizationCodeToken, token, "access_token");
+    }
+
+    private void clientCredentials() {
+        HttpResponse<String> token = exchange(clientCredentialsToken, HttpRequest.newBuilder(baseUri.resolve("/oauth2/token"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Authorization", "Basic " + GATEWAY_CREDENTIALS)
+                .POST(HttpRequest.BodyPublishers.ofString(form(Map.of(
+                        "grant_type", "client_credentials",
+                        "scope", "read"))))
+                .build(), 200);
+        requireField(clientCredentialsToken, token, "access_token");
+    }
+
+    private void account() {
+        String email = createActiveAccount();
+        try {
+            exchange(sendCode, json("/api/auth/send-code", Map.of("email", email)), 202);
+            HttpResponse<String> verified = exchange(verifyCode, json("/api/auth/verify-code", Map.of(
+                    "email", email,
+                    "code", standIns.latestOtpCode(email),
+                    "activateUser", false)), 200);
+            String resetToken = requireField(verifyCode, verified, "resetToken");
+            exchange(resetPassword, json("/api/auth/reset-password", Map.of(
+                    "email", email,
+                    "password", NEW_PASSWORD,
+                    "confirmPassword", NEW_PASSWORD,
+                    "resetToken", resetToken)), 202);
+        } finally {
+            standIns.discardMailbox(email);
+        }
+    }
+
+    private HttpResponse<String> exchange(StepMetrics.Step step, HttpRequest request, int expectedStatus) {
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException ex) {
+            step.error(ex.getClass().getSimpleName());
+            throw new FlowAborted(ex.getClass().getSimpleName());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new FlowAborted("interrupted");
+        }
+        if (response.statusCode() != expectedStatus) {
+            String reason = "HTTP " + response.statusCode();
+            step.error(reason);
+            throw new FlowAborted(reason);
+        }
+        step.record(start);
+        return response;
+    }
+
+    private HttpRequest json(String path, Map<String, Object> body) {
+        try {
+            return HttpRequest.newBuilder(baseUri.resolve(path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private String requireField(StepMetrics.Step step, HttpResponse<String> response, String field) {
+        try {
+            JsonNode value = objectMapper.readTree(response.body()).get(field);
+            if (value != null && value.isTextual()) {
+                return value.asText();
+            }
+        } catch (IOException ignored) {
+            // Reported as a missing field below
+        }
+        step.error("missing " + field);
+        throw new FlowAborted("missing " + field);
+    }
+
+    private static String location(HttpResponse<String> response) {
+        return response.headers().firstValue("Location")
+                .orElseThrow(() -> new FlowAborted("redirect without Location"));
+    }
+
+    private static String sessionCookie(HttpResponse<String> response, String current) {
+        for (String header : response.headers().allValues("Set-Cookie")) {
+            if (header.startsWith(SESSION_COOKIE)) {
+                int end = header.indexOf(';');
+                return end < 0 ? header : header.substring(0, end);
+            }
+        }
+        if (current == null) {
+            throw new FlowAborted("no session cookie");
+        }
+        return current;
+    }
+
+    private static String queryParameter(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0 && pair.substring(0, separator).equals(name)) {
+                return URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static String form(Map<String, String> parameters) {
+        StringJoiner joiner = new StringJoiner("&");
+        parameters.forEach((name, value) -> joiner.add(
+                URLEncoder.encode(name, StandardCharsets.UTF_8) + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        return joiner.toString();
+    }
+
+    private String randomToken(int bytes) {
+        byte[] value = new byte[bytes];
+        random.nextBytes(value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value);
+    }
+
+    private static String codeChallenge(String verifier) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(verifier.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Ends the current flow; the failing step has already been recorded.
+     */
+    private static final class FlowAborted extends RuntimeException {
+
+        FlowAborted(String reason) {
+            super(reason, null, false, false);
+        }
+    }
+}
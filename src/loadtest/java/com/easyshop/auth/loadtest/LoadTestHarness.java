@@ -0,0 +1,158 @@
+package com.easyshop.auth.loadtest;
+
+import com.easyshop.auth.Application;
+import com.easyshop.auth.loadtest.LoadTestSettings.Flow;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the service against local stand-ins and drives a weighted mix of its end-to-end flows from a fixed
+ * number of concurrent workers (a closed model: each worker starts its next flow when the previous one ends).
+ * <p>
+ * Prints throughput and latency percentiles per step, and writes the same figures as JSON to
+ * {@code loadtest.report}. Load generator and service share the JVM and CPU; compare runs made on the same
+ * machine with the same settings.
+ */
+public final class LoadTestHarness {
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        int httpPort = LocalStandIns.freePort();
+
+        try (LocalStandIns standIns = LocalStandIns.start();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                     .run(applicationArguments(settings, standIns, httpPort))) {
+
+            URI baseUri = URI.create("http://localhost:" + httpPort);
+            awaitReady(baseUri, Duration.ofMinutes(2));
+
+            StepMetrics metrics = new StepMetrics();
+            AuthFlowClient client = new AuthFlowClient(baseUri, standIns, metrics);
+            ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency());
+            try {
+                List<String> activeUsers = seedUsers(client, workers, settings.users());
+                System.out.printf("Seeded %d users, warming up for %d s%n", activeUsers.size(), settings.warmup().toSeconds());
+                runPhase(client, workers, settings, activeUsers, settings.warmup());
+                metrics.reset();
+
+                System.out.printf("Measuring for %d s with %d workers%n", settings.duration().toSeconds(), settings.concurrency());
+                long start = System.nanoTime();
+                runPhase(client, workers, settings, activeUsers, settings.duration());
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+                List<StepMetrics.StepReport> reports = metrics.report(elapsed);
+                StepMetrics.print(reports, elapsed, System.out);
+                StepMetrics.write(reports, settings, elapsed, settings.report());
+                System.out.printf("%nReport written to %s%n", settings.report().toAbsolutePath());
+            } finally {
+                workers.shutdownNow();
+            }
+        }
+    }
+
+    private static String[] applicationArguments(LoadTestSettings settings, LocalStandIns standIns, int httpPort) {
+        List<String> arguments = new ArrayList<>(List.of(
+                // Needed while config data is imported, before the loadtest profile document applies
+                "--spring.profiles.active=loadtest",
+                "--spring.cloud.config.enabled=false",
+                "--CONFIG_SERVER_URI=http://localhost:8888",
+                "--server.port=" + httpPort,
+                "--easyshop.auth.issuer-uri=http://localhost:" + httpPort,
+                "--spring.data.redis.host=127.0.0.1",
+                "--spring.data.redis.port=" + standIns.redisPort(),
+                "--spring.mail.host=127.0.0.1",
+                "--spring.mail.port=" + standIns.smtpPort(),
+                "--easyshop.auth.reactive.enabled=" + settings.reactive()));
+        if (settings.usesExternalDatabase()) {
+            arguments.add("--spring.datasource.url=" + settings.databaseUrl());
+            arguments.add("--spring.datasource.username=" + settings.databaseUsername());
+            arguments.add("--spring.datasource.password=" + settings.databasePassword());
+            arguments.add("--spring.flyway.locations=classpath:db/migration");
+        }
+        return arguments.toArray(String[]::new);
+    }
+
+    private static void awaitReady(URI baseUri, Duration timeout) throws InterruptedException {
+        HttpClient http = HttpClient.newHttpClient();
+        HttpRequest readyz = HttpRequest.newBuilder(baseUri.resolve("/readyz")).GET().build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (http.send(readyz, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException ignored) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Service not ready after " + timeout.toSeconds() + " s");
+    }
+
+    private static List<String> seedUsers(AuthFlowClient client, ExecutorService workers, int count) throws Exception {
+        List<Future<String>> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            accounts.add(workers.submit(client::createActiveAccount));
+        }
+        List<String> emails = new ArrayList<>(count);
+        for (Future<String> account : accounts) {
+            emails.add(account.get());
+        }
+        return Collections.unmodifiableList(emails);
+    }
+
+    private static void runPhase(AuthFlowClient client, ExecutorService workers, LoadTestSettings settings,
+                                 List<String> activeUsers, Duration length) throws Exception {
+        if (length.isZero() || length.isNegative()) {
+            return;
+        }
+        Flow[] flows = settings.mix().keySet().toArray(Flow[]::new);
+        int[] cumulativeWeights = new int[flows.length];
+        int total = 0;
+        for (int i = 0; i < flows.length; i++) {
+            total += settings.mix().get(flows[i]);
+            cumulativeWeights[i] = total;
+        }
+        int totalWeight = total;
+        long deadline = System.nanoTime() + length.toNanos();
+
+        List<Future<?>> running = new ArrayList<>(settings.concurrency());
+        for (int i = 0; i < settings.concurrency(); i++) {
+            running.add(workers.submit(() -> {
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    client.run(pick(flows, cumulativeWeights, totalWeight), activeUsers);
+                }
+            }));
+        }
+        for (Future<?> worker : running) {
+            worker.get(length.toSeconds() + 60, TimeUnit.SECONDS);
+        }
+    }
+
+    private static Flow pick(Flow[] flows, int[] cumulativeWeights, int totalWeight) {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < flows.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return flows[i];
+            }
+        }
+        return flows[flows.length - 1];
+    }
+}
@@ -0,0 +1,93 @@
+package com.easyshop.auth.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load-test parameters, read from {@code loadtest.*} system properties (see the {@code loadtest} Maven profile).
+ *
+ * @param mix relative weight of each flow; a worker picks the next flow at random by weight
+ * @param reactive serve {@code /api/auth} from the reactive controller instead of the servlet one
+ */
+record LoadTestSettings(int concurrency,
+                        Duration warmup,
+                        Duration duration,
+                        int users,
+                        Map<Flow, Integer> mix,
+                        String databaseUrl,
+                        String databaseUsername,
+                        String databasePassword,
+                        boolean reactive,
+                        Path report) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Math.max(Integer.getInteger("loadtest.concurrency", 32), 1),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 15)),
+                Duration.ofSeconds(Math.max(Long.getLong("loadtest.duration-seconds", 60), 1)),
+                Math.max(Integer.getInteger("loadtest.users", 100), 1),
+                parseMix(System.getProperty("loadtest.mix", "authorization-code:60,client-credentials:30,account:10")),
+                System.getProperty("loadtest.database-url", ""),
+                System.getProperty("loadtest.database-username", ""),
+                System.getProperty("loadtest.database-password", ""),
+                Boolean.getBoolean("loadtest.reactive"),
+                Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json")));
+    }
+
+    boolean usesExternalDatabase() {
+        return !databaseUrl.isBlank();
+    }
+
+    private static Map<Flow, Integer> parseMix(String value) {
+        Map<Flow, Integer> mix = new EnumMap<>(Flow.class);
+        for (String entry : value.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.indexOf(':');
+            Flow flow = Flow.fromName(separator < 0 ? trimmed : trimmed.substring(0, separator).trim());
+            int weight = separator < 0 ? 1 : Integer.parseInt(trimmed.substring(separator + 1).trim());
+            if (weight > 0) {
+                mix.put(flow, weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix selects no flow: " + value);
+        }
+        return mix;
+    }
+
+    /**
+     * End-to-end flows driven by the harness.
+     */
+    enum Flow {
+        /** authorization_code with PKCE for the public {@code webapp} client, including the form login. */
+        AUTHORIZATION_CODE("authorization-code"),
+        /** client_credentials for the confidential {@code gateway} client. */
+        CLIENT_CREDENTIALS("client-credentials"),
+        /** register, activation, then send-code, verify-code and reset-password for the new account. */
+        ACCOUNT("account");
+
+        private final String name;
+
+        Flow(String name) {
+            this.name = name;
+        }
+
+        String flowName() {
+            return name;
+        }
+
+        static Flow fromName(String name) {
+            for (Flow flow : values()) {
+                if (flow.name.equals(name)) {
+                    return flow;
+                }
+            }
+            throw new IllegalArgumentException("Unknown load-test flow: " + name);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.easyshop.auth.loadtest;
+
+import com.icegreen.greenmail.store.FolderException;
+import com.icegreen.greenmail.store.StoredMessage;
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import jakarta.mail.BodyPart;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import redis.embedded.RedisServer;
+
+/**
+ * In-process replacements for the service's infrastructure: an embedded Redis server and an in-memory
+ * SMTP sink that the harness reads OTP codes from. The database stand-in is H2, configured by the
+ * {@code loadtest} Spring profile.
+ */
+final class LocalStandIns implements AutoCloseable {
+
+    // Matches <div class="code" ...>12345678</div> in email/otp-verification.html
+    private static final Pattern OTP_CODE = Pattern.compile("class=\"code\"[^>]*>\\s*(\\d+)\\s*<");
+
+    private final int redisPort;
+    private final int smtpPort;
+    private final RedisServer redis;
+    private final GreenMail smtp;
+
+    private LocalStandIns(int redisPort, int smtpPort) {
+        this.redisPort = redisPort;
+        this.smtpPort = smtpPort;
+        this.redis = new RedisServer(redisPort);
+        this.smtp = new GreenMail(new ServerSetup(smtpPort, "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+    }
+
+    static LocalStandIns start() throws IOException {
+        LocalStandIns standIns = new LocalStandIns(freePort(), freePort());
+        standIns.redis.start();
+        standIns.smtp.start();
+        return standIns;
+    }
+
+    static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            socket.setReuseAddress(true);
+            return socket.getLocalPort();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    int redisPort() {
+        return redisPort;
+    }
+
+    int smtpPort() {
+        return smtpPort;
+    }
+
+    /**
+     * Returns the code from the newest OTP email delivered to the address. Sends are synchronous, so the email
+     * is already in the sink when the triggering request returns.
+     */
+    String latestOtpCode(String email) {
+        // Per-recipient lookup; getReceivedMessagesForDomain scans every stored message
+        GreenMailUser user = smtp.getUserManager().getUserByEmail(email);
+        try {
+            List<StoredMessage> messages = user != null
+                    ? smtp.getManagers().getImapHostManager().getInbox(user).getMessages()
+                    : List.of();
+            if (messages.isEmpty()) {
+                throw new IllegalStateException("No email delivered to " + email);
+            }
+            String html = htmlOf(messages.get(messages.size() - 1).getMimeMessage());
+            Matcher matcher = OTP_CODE.matcher(html != null ? html : "");
+            if (!matcher.find()) {
+                throw new IllegalStateException("No OTP code in email to " + email);
+            }
+            return matcher.group(1);
+        } catch (FolderException | MessagingException | IOException ex) {
+            throw new IllegalStateException("Unreadable email to " + email, ex);
+        }
+    }
+
+    /**
+     * Drops the mailbox of an account whose flow has finished, so the sink does not grow for the whole run.
+     */
+    void discardMailbox(String email) {
+        GreenMailUser user = smtp.getUserManager().getUserByEmail(email);
+        if (user != null) {
+            smtp.getUserManager().deleteUser(user);
+        }
+    }
+
+    private static String htmlOf(Part part) throws MessagingException, IOException {
+        if (part.isMimeType("text/html")) {
+            return (String) part.getContent();
+        }
+        if (part.isMimeType("multipart/*")) {
+            Multipart multipart = (Multipart) part.getContent();
+            for (int i = 0; i < multipart.getCount(); i++) {
+                BodyPart bodyPart = multipart.getBodyPart(i);
+                String html = htmlOf(bodyPart);
+                if (html != null) {
+                    return html;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        smtp.stop();
+        redis.stop();
+    }
+}
@@ -0,0 +1,137 @@
+package com.easyshop.auth.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latency histograms and error counts per flow step. Steps are registered up front so the report keeps their
+ * order; recording is lock-free and safe from any worker thread.
+ */
+final class StepMetrics {
+
+    private final Map<String, Step> steps = new LinkedHashMap<>();
+
+    synchronized Step step(String name) {
+        return steps.computeIfAbsent(name, Step::new);
+    }
+
+    /**
+     * Discards everything recorded so far, used at the end of the warmup phase.
+     */
+    synchronized void reset() {
+        steps.values().forEach(Step::reset);
+    }
+
+    synchronized List<StepReport> report(Duration elapsed) {
+        double seconds = Math.max(elapsed.toNanos(), 1) / 1e9;
+        List<StepReport> reports = new ArrayList<>(steps.size());
+        for (Step step : steps.values()) {
+            Histogram histogram = step.recorder.getIntervalHistogram();
+            reports.add(new StepReport(
+                    step.name,
+                    histogram.getTotalCount(),
+                    step.errors.sum(),
+                    Map.copyOf(step.errorsByReason()),
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        }
+        return reports;
+    }
+
+    static void print(List<StepReport> reports, Duration elapsed, PrintStream out) {
+        out.printf("%nMeasured %d s%n", elapsed.toSeconds());
+        out.printf("%-24s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "step", "ok", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (StepReport report : reports) {
+            out.printf("%-24s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    report.step(), report.count(), report.errors(), report.throughputPerSecond(),
+                    report.p50Millis(), report.p90Millis(), report.p99Millis(), report.p999Millis(), report.maxMillis());
+        }
+        for (StepReport report : reports) {
+            report.errorsByReason().forEach((reason, count) ->
+                    out.printf("  %s: %d x %s%n", report.step(), count, reason));
+        }
+    }
+
+    static void write(List<StepReport> reports, LoadTestSettings settings, Duration elapsed, Path file)
+            throws IOException {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("concurrency", settings.concurrency());
+        document.put("durationSeconds", elapsed.toSeconds());
+        document.put("database", settings.usesExternalDatabase() ? settings.databaseUrl() : "h2");
+        document.put("stack", settings.reactive() ? "reactive" : "servlet");
+        document.put("steps", reports);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), document);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    static final class Step {
+
+        private final String name;
+        // Microseconds, auto-resizing so slow outliers are never clipped
+        private final Recorder recorder = new Recorder(3);
+        private final LongAdder errors = new LongAdder();
+        private final Map<String, LongAdder> errorReasons = new ConcurrentHashMap<>();
+
+        private Step(String name) {
+            this.name = name;
+        }
+
+        void record(long startNanos) {
+            recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+        }
+
+        void error(String reason) {
+            errors.increment();
+            errorReasons.computeIfAbsent(reason, key -> new LongAdder()).increment();
+        }
+
+        private Map<String, Long> errorsByReason() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            errorReasons.forEach((reason, count) -> counts.put(reason, count.sum()));
+            return counts;
+        }
+
+        private void reset() {
+            recorder.reset();
+            errors.reset();
+            errorReasons.clear();
+        }
+    }
+
+    record StepReport(String step,
+                      long count,
+                      long errors,
+                      Map<String, Long> errorsByReason,
+                      double throughputPerSecond,
+                      double p50Millis,
+                      double p90Millis,
+                      double p99Millis,
+                      double p999Millis,
+                      double maxMillis) {
+    }
+}
@@ -0,0 +1,36 @@
+-- H2 (PostgreSQL mode) equivalent of db/baseline/auth_baseline.sql for the load-test harness.
+-- Keep the columns in sync with the production baseline.
+
+CREATE SCHEMA IF NOT EXISTS auth;
+
+CREATE TABLE IF NOT EXISTS auth."user" (
+  id                      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  email                   VARCHAR(255) NOT NULL UNIQUE,
+  password                VARCHAR(255) NOT NULL,
+  role                    VARCHAR(32) NOT NULL DEFAULT 'USER',
+  created_at              TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  enabled                 BOOLEAN NOT NULL DEFAULT true,
+  account_non_expired     BOOLEAN NOT NULL DEFAULT true,
+  account_non_locked      BOOLEAN NOT NULL DEFAULT true,
+  credentials_non_expired BOOLEAN NOT NULL DEFAULT true,
+  updated_at              TIMESTAMP WITH TIME ZONE,
+  username                VARCHAR(255) GENERATED ALWAYS AS (email),
+  CONSTRAINT ck_user_email_canonical CHECK (email = lower(trim(email)))
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_unverified_created_at
+  ON auth."user"(enabled, created_at);
+
+CREATE TABLE IF NOT EXISTS auth.oauth2_clients (
+  id                            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  client_id                     VARCHAR(255) NOT NULL UNIQUE,
+  client_secret                 VARCHAR(255),
+  client_authentication_methods TEXT NOT NULL,
+  authorization_grant_types     TEXT NOT NULL,
+  redirect_uris                 TEXT,
+  scopes                        TEXT NOT NULL,
+  client_settings               TEXT,
+  token_settings                TEXT,
+  created_at                    TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at                    TIMESTAMP WITH TIME ZONE
+);
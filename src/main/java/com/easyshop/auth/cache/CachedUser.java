@@ -0,0 +1,55 @@
+package com.easyshop.auth.cache;
+
+import com.easyshop.auth.model.entity.User;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable, lean snapshot of the columns needed to authenticate a user.
+ * A fresh detached {@link User} is materialized for every cache hit so callers never share mutable state.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+final class CachedUser {
+
+    private final Long id;
+    private final String email;
+    private final String username;
+    private final String password;
+    private final User.Role role;
+    private final boolean enabled;
+    private final boolean accountNonExpired;
+    private final boolean accountNonLocked;
+    private final boolean credentialsNonExpired;
+    private final long loadedAtNanos;
+
+    static CachedUser from(User user, long loadedAtNanos) {
+        return new CachedUser(
+                user.getId(),
+                user.getEmail(),
+                user.getUsername(),
+                user.getPassword(),
+                user.getRole(),
+                user.isEnabled(),
+                user.isAccountNonExpired(),
+                user.isAccountNonLocked(),
+                user.isCredentialsNonExpired(),
+                loadedAtNanos
+        );
+    }
+
+    User toUser() {
+        return User.builder()
+                .id(id)
+                .email(email)
+                .username(username)
+                .password(password)
+                .role(role)
+                .enabled(enabled)
+                .accountNonExpired(accountNonExpired)
+                .accountNonLocked(accountNonLocked)
+                .credentialsNonExpired(credentialsNonExpired)
+                .build();
+    }
+}
@@ -0,0 +1,164 @@
+package com.easyshop.auth.cache;
+
+import com.easyshop.auth.datasource.PrimaryReadPinning;
+import com.easyshop.auth.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * In-memory Bloom filter of registered emails used to reject unknown addresses without a database probe.
+ * <p>
+ * A negative answer is definite; a positive one still has to be confirmed against the database.
+ * Until the first build completes every email is reported as possibly registered. Deleted users stay
+ * in the filter (a harmless false positive) until the next scheduled rebuild.
+ * <p>
+ * Each node holds its own filter, so new registrations are broadcast over Redis pub/sub once committed and
+ * added by every node; otherwise a peer would answer "unknown address" for a fresh account until its next
+ * rebuild. A lost broadcast is repaired by that rebuild.
+ */
+@Slf4j
+@Component
+public class RegisteredEmailFilter implements MessageListener {
+
+    private final UserRepository userRepository;
+    private final RedisTemplate<String, String> redis;
+    private final boolean enabled;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final double falsePositiveRate;
+    private final long expectedInsertions;
+
+    private final Counter definiteMisses;
+    private final Counter remoteAdditions;
+    private final Timer rebuildTimer;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter building;
+
+    public RegisteredEmailFilter(UserRepository userRepository,
+                                 RedisTemplate<String, String> redis,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${easyshop.auth.email-filter.enabled:true}") boolean enabled,
+                                 @Value("${easyshop.auth.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                 @Value("${easyshop.auth.email-filter.expected-insertions:100000}") long expectedInsertions,
+                                 @Value("${easyshop.auth.email-filter.channel:auth:email-filter:add}") String channel) {
+        this.userRepository = userRepository;
+        this.redis = redis;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.falsePositiveRate = falsePositiveRate;
+        this.expectedInsertions = Math.max(expectedInsertions, 1);
+        this.definiteMisses = Counter.builder("auth.email.filter.definite.misses")
+                .description("Lookups answered as unregistered without touching the database")
+                .register(meterRegistry);
+        this.remoteAdditions = Counter.builder("auth.email.filter.remote.additions")
+                .description("Registrations added to the filter from another node's broadcast")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("auth.email.filter.rebuild")
+                .register(meterRegistry);
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public boolean mightBeRegistered(String email) {
+        BloomFilter filter = current;
+        if (!enabled || filter == null || filter.mightContain(email)) {
+            return true;
+        }
+        definiteMisses.increment();
+        return false;
+    }
+
+    /**
+     * Records a newly registered email. The email is added immediately so the same transaction can
+     * send its OTP, and again after commit so a rebuild that snapshotted the table earlier cannot lose it;
+     * the commit also broadcasts it to the other nodes.
+     */
+    public void register(String email) {
+        if (!enabled || email == null) {
+            return;
+        }
+        add(email);
+        AfterCommit.run(() -> {
+            add(email);
+            publish(email);
+        });
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        if (!enabled) {
+            return;
+        }
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = payload.indexOf('|');
+        if (separator < 0 || nodeId.equals(payload.substring(0, separator))) {
+            return;
+        }
+        add(payload.substring(separator + 1));
+        remoteAdditions.increment();
+    }
+
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${easyshop.auth.email-filter.rebuild-interval-ms:3600000}",
+               initialDelayString = "${easyshop.auth.email-filter.initial-delay-ms:0}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        // A lagging replica could miss users registered just before the snapshot
+        PrimaryReadPinning.runOnPrimary(this::rebuildFilter);
+    }
+
+    private void rebuildFilter() {
+        Timer.Sample sample = Timer.start();
+        long users = userRepository.count();
+        BloomFilter fresh = BloomFilter.create(Math.max(expectedInsertions, users + users / 2), falsePositiveRate);
+
+        // Publish before the snapshot is taken so concurrent registrations land in both filters
+        building = fresh;
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            emails.forEach(fresh::put);
+            current = fresh;
+        } finally {
+            building = null;
+        }
+        long nanos = sample.stop(rebuildTimer);
+        log.debug("Registered email filter rebuilt with {} users in {} ms.", users, nanos / 1_000_000);
+    }
+
+    private void publish(String email) {
+        try {
+            redis.convertAndSend(channel, nodeId + "|" + email);
+        } catch (DataAccessException ex) {
+            log.warn("Failed to broadcast registered email; peers pick it up on their next filter rebuild", ex);
+        }
+    }
+
+    private void add(String email) {
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(email);
+        }
+        BloomFilter active = current;
+        if (active != null) {
+            active.put(email);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.easyshop.auth.cache;
+
+import com.easyshop.auth.datasource.PrimaryReadPinning;
+import com.easyshop.auth.model.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived near-cache of user credentials used by form login and OIDC token building.
+ * <p>
+ * Entries are evicted locally once the writing transaction commits and the eviction is broadcast to
+ * the other nodes over Redis pub/sub. The TTL bounds staleness if a broadcast is lost.
+ * <p>
+ * Peers receiving the broadcast also pin the account to the primary, so the reload that follows reads the fresh
+ * row rather than a replica still replaying the write.
+ */
+@Slf4j
+@Component
+public class UserDetailsCache implements MessageListener {
+
+    private static final String CACHE_NAME = "auth.user.details";
+
+    private final RedisTemplate<String, String> redis;
+    private final PrimaryReadPinning primaryReadPinning;
+    private final boolean enabled;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Cache<String, CachedUser> cache;
+    // Sequence number of the latest local eviction per email, kept as long as an entry could live
+    private final Cache<String, Long> evictedAt;
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final Timer entryAge;
+    private final Counter localInvalidations;
+    private final Counter remoteInvalidations;
+
+    public UserDetailsCache(RedisTemplate<String, String> redis,
+                            PrimaryReadPinning primaryReadPinning,
+                            MeterRegistry meterRegistry,
+                            @Value("${easyshop.auth.user-cache.enabled:true}") boolean enabled,
+                            @Value("${easyshop.auth.user-cache.max-size:10000}") long maxSize,
+                            @Value("${easyshop.auth.user-cache.ttl-seconds:30}") long ttlSeconds,
+                            @Value("${easyshop.auth.user-cache.invalidation-channel:auth:user-cache:invalidate}") String channel) {
+        this.redis = redis;
+        this.primaryReadPinning = primaryReadPinning;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxSize, 1))
+                .expireAfterWrite(Duration.ofSeconds(Math.max(ttlSeconds, 1)))
+                .recordStats()
+                .build();
+        this.evictedAt = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxSize, 1))
+                .expireAfterWrite(Duration.ofSeconds(Math.max(ttlSeconds, 1)))
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.entryAge = Timer.builder("auth.user.cache.entry.age")
+                .description("Age of the cached user snapshot served on a cache hit")
+                .register(meterRegistry);
+        this.localInvalidations = Counter.builder("auth.user.cache.invalidations")
+                .tag("source", "local")
+                .register(meterRegistry);
+        this.remoteInvalidations = Counter.builder("auth.user.cache.invalidations")
+                .tag("source", "remote")
+                .register(meterRegistry);
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Returns the user for the given (normalized) email, consulting the loader only on a cache miss.
+     */
+    public Optional<User> get(String email, Function<String, Optional<User>> loader) {
+        if (!enabled) {
+            return loader.apply(email);
+        }
+
+        CachedUser cached = cache.getIfPresent(email);
+        if (cached != null) {
+            entryAge.record(System.nanoTime() - cached.getLoadedAtNanos(), TimeUnit.NANOSECONDS);
+            return Optional.of(cached.toUser());
+        }
+
+        // Loaded outside the map so no bin lock is held during the query; an eviction racing with the load is
+        // detected through its sequence number and wins over the row read before it
+        long observed = evictions.get();
+        Optional<User> user = loader.apply(email);
+        user.ifPresent(found -> cacheLoaded(email, CachedUser.from(found, System.nanoTime()), observed));
+        return user;
+    }
+
+    /**
+     * Evicts the user on this node and on every other node once the current transaction commits.
+     */
+    public void invalidate(String email) {
+        if (!enabled || email == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            evictLocally(email);
+            localInvalidations.increment();
+            publish(email);
+        });
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = payload.indexOf('|');
+        if (separator < 0) {
+            return;
+        }
+        if (nodeId.equals(payload.substring(0, separator))) {
+            return;
+        }
+        String email = payload.substring(separator + 1);
+        primaryReadPinning.pin(email);
+        evictLocally(email);
+        remoteInvalidations.increment();
+    }
+
+    private void cacheLoaded(String email, CachedUser entry, long observed) {
+        if (evictedSince(email, observed)) {
+            return;
+        }
+        cache.asMap().putIfAbsent(email, entry);
+        // The eviction may have run between the check and the put, so look again and take the entry back out
+        if (evictedSince(email, observed)) {
+            cache.asMap().remove(email, entry);
+        }
+    }
+
+    private boolean evictedSince(String email, long observed) {
+        Long evicted = evictedAt.getIfPresent(email);
+        return evicted != null && evicted > observed;
+    }
+
+    private void evictLocally(String email) {
+        evictedAt.put(email, evictions.incrementAndGet());
+        cache.invalidate(email);
+    }
+
+    private void publish(String email) {
+        try {
+            redis.convertAndSend(channel, nodeId + "|" + email);
+        } catch (DataAccessException ex) {
+            log.warn("Failed to broadcast user cache invalidation; peers rely on TTL expiry", ex);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.easyshop.auth.config;
+
+import com.easyshop.auth.model.OtpState;
+import com.easyshop.auth.model.dto.AuthDto;
+import com.easyshop.auth.model.dto.OtpSendDto;
+import com.easyshop.auth.model.dto.OtpSendResultDto;
+import com.easyshop.auth.model.dto.PasswordResetDto;
+import com.easyshop.auth.model.dto.VerifyCodeDto;
+import com.easyshop.auth.model.dto.VerifyCodeResponseDto;
+import com.easyshop.auth.model.dto.error.ErrorResponse;
+import com.easyshop.auth.web.NormalizedEmailDeserializer;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reachability metadata for the native image build ({@code -Pnative}).
+ * <p>
+ * Spring AOT covers controllers, JPA entities and configuration properties on its own; this registers what it
+ * cannot see: types serialized by hand through {@code ObjectMapper}, resources loaded by name and Nimbus JOSE
+ * classes used while building the JWK set.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(AuthRuntimeHints.Registrar.class)
+@RegisterReflectionForBinding({
+        AuthDto.class, OtpSendDto.class, OtpSendResultDto.class, PasswordResetDto.class,
+        VerifyCodeDto.class, VerifyCodeResponseDto.class, ErrorResponse.class
+})
+public class AuthRuntimeHints {
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // OtpState is stored in Redis as JSON and has no setters, so Jackson writes its fields directly
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), OtpState.class);
+            hints.reflection().registerType(OtpState.class, MemberCategory.DECLARED_FIELDS);
+            // Instantiated by Jackson through the @NormalizedEmail meta-annotation
+            hints.reflection().registerType(NormalizedEmailDeserializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+            hints.reflection().registerType(RSAKey.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.reflection().registerType(JWKSet.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.reflection().registerType(JWSAlgorithm.class, MemberCategory.PUBLIC_FIELDS);
+
+            hints.resources().registerPattern("templates/*.html");
+            hints.resources().registerPattern("templates/email/*.html");
+            hints.resources().registerPattern("static/**");
+            hints.resources().registerPattern("db/migration/*.sql");
+            hints.resources().registerResourceBundle("messages");
+        }
+    }
+}
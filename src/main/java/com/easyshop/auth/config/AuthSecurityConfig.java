@@ -1,13 +1,19 @@
 package com.easyshop.auth.config;
 
+import com.easyshop.auth.limiter.LaneExecutors;
 import com.easyshop.auth.security.AccountStatusAuthenticationFailureHandler;
 import com.easyshop.auth.security.DeferredAccountStatusDaoAuthenticationProvider;
+import com.easyshop.auth.security.LaneAwarePasswordEncoder;
+import com.easyshop.auth.security.RecordingJwtEncoder;
+import com.easyshop.auth.security.TimedPasswordEncoder;
+import com.easyshop.auth.tracing.AuthTracer;
 import com.easyshop.auth.service.DatabaseUserDetailsService;
 import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -21,6 +27,8 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.authorization.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
 import org.springframework.security.oauth2.server.authorization.config.annotation.web.configurers.OAuth2AuthorizationServerConfigurer;
 import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
@@ -28,6 +36,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationFailureHandler;
 import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
 import org.springframework.security.web.util.matcher.MediaTypeRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -52,13 +61,16 @@ public class AuthSecurityConfig {
 
     private final String issuerUri;
     private final List<String> allowedOrigins;
+    private final int managementPort;
 
     public AuthSecurityConfig(
             @Value("${easyshop.auth.issuer-uri}") String issuerUri,
-            @Value("${easyshop.auth.allowed-origins:http://localhost:5173}") String allowedOrigins
+            @Value("${easyshop.auth.allowed-origins:http://localhost:5173}") String allowedOrigins,
+            @Value("${management.server.port:-1}") int managementPort
     ) {
         this.issuerUri = issuerUri;
         this.allowedOrigins = parseOrigins(allowedOrigins);
+        this.managementPort = managementPort;
     }
 
     private static List<String> parseOrigins(String origins) {
@@ -100,6 +112,8 @@ public class AuthSecurityConfig {
 
     /**
      * Security filter chain for general application endpoints.
+     * Only the health probes are public on the application port; metrics are scraped from the separate
+     * management port, which is not exposed outside the cluster, and require authentication anywhere else.
      */
     @Bean
     @Order(2)
@@ -113,7 +127,9 @@ public class AuthSecurityConfig {
                 .authorizeHttpRequests((authorize) -> authorize
                         .requestMatchers("/login", "/error", "/webjars/**",
                                 "/healthz", "/readyz", "/api/auth/**", "/.well-known/**",
+                                "/actuator/health/**",
                                 "/css/**", "/images/**", "/js/**", "/favicon.ico").permitAll()
+                        .requestMatchers(onManagementPort("/actuator/prometheus")).permitAll()
                         .anyRequest().authenticated()
                 )
                 .formLogin(form -> form
@@ -126,6 +142,12 @@ public class AuthSecurityConfig {
         return http.build();
     }
 
+    private RequestMatcher onManagementPort(String path) {
+        return request -> managementPort > 0
+                && request.getLocalPort() == managementPort
+                && path.equals(request.getRequestURI());
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -142,8 +164,12 @@ public class AuthSecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           AuthTracer authTracer,
+                                           LaneExecutors laneExecutors) {
+        // Timers and spans include the wait for a lane thread; auth.lane.queue.wait shows that share
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new LaneAwarePasswordEncoder(bcrypt, laneExecutors), meterRegistry, authTracer);
     }
 
     @Bean
@@ -174,6 +200,11 @@ public class AuthSecurityConfig {
         return new ImmutableJWKSet<>(jwkSet);
     }
 
+    @Bean
+    public JwtEncoder jwtEncoder(JWKSource<SecurityContext> jwkSource, AuthTracer authTracer) {
+        return new RecordingJwtEncoder(new NimbusJwtEncoder(jwkSource), authTracer);
+    }
+
     @Bean
     public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource) {
         return OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
@@ -0,0 +1,56 @@
+package com.easyshop.auth.config;
+
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.util.StringUtils;
+
+/**
+ * Fresh-install path for the consolidated schema in {@code db/baseline/auth_baseline.sql}.
+ * <p>
+ * The V1-V7 scripts in {@code db/migration} stay the upgrade path for every existing database. Only an empty
+ * database (no Flyway history and no {@code auth.user} table) is created from the baseline script and then
+ * baselined at V7, so it skips the historical scripts and picks up V8+ like any other database.
+ */
+@Slf4j
+@Configuration
+public class FlywayConfig {
+
+    private static final String BASELINE_VERSION = "7";
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            ResourceLoader resourceLoader,
+            @Value("${easyshop.flyway.fresh-install-baseline:classpath:db/baseline/auth_baseline.sql}") String baseline) {
+        return flyway -> {
+            if (StringUtils.hasText(baseline) && isEmptyDatabase(flyway)) {
+                log.info("Empty database, creating the schema from {} and baselining at V{}.",
+                        baseline, BASELINE_VERSION);
+                DataSource dataSource = flyway.getConfiguration().getDataSource();
+                new ResourceDatabasePopulator(resourceLoader.getResource(baseline)).execute(dataSource);
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .baselineVersion(BASELINE_VERSION)
+                        .baselineDescription("auth baseline")
+                        .load()
+                        .baseline();
+            }
+            flyway.migrate();
+        };
+    }
+
+    private static boolean isEmptyDatabase(Flyway flyway) {
+        if (flyway.info().applied().length > 0) {
+            return false;
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(flyway.getConfiguration().getDataSource());
+        return jdbc.queryForObject("SELECT to_regclass('auth.user') IS NULL", Boolean.class);
+    }
+}
@@ -0,0 +1,20 @@
+package com.easyshop.auth.config;
+
+import com.easyshop.auth.service.impl.MailSendPool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Platform-thread pool for SMTP sends; sized by {@code easyshop.mail.send-threads} and
+ * {@code easyshop.mail.send-queue-capacity}.
+ */
+@Configuration
+public class MailExecutorConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public MailSendPool mailSendPool(@Value("${easyshop.mail.send-threads:8}") int sendThreads,
+                                     @Value("${easyshop.mail.send-queue-capacity:500}") int queueCapacity) {
+        return new MailSendPool(sendThreads, queueCapacity);
+    }
+}
@@ -0,0 +1,24 @@
+package com.easyshop.auth.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exits the JVM once the context (and with it Flyway and the client seeding runner) has started under the
+ * {@code migrate} profile, so the same image can run migrations as a Kubernetes Job before the pods roll out.
+ */
+@Slf4j
+@Component
+@Profile("migrate")
+public class MigrationJobRunner {
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        log.info("Database migrations applied, exiting migration job.");
+        System.exit(SpringApplication.exit(event.getApplicationContext(), () -> 0));
+    }
+}
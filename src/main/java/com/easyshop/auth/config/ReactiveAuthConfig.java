@@ -0,0 +1,77 @@
+package com.easyshop.auth.config;
+
+import com.easyshop.auth.cache.RegisteredEmailFilter;
+import com.easyshop.auth.datasource.PrimaryReadPinning;
+import com.easyshop.auth.logging.EmailHasher;
+import com.easyshop.auth.repository.ReactiveOtpStateRepository;
+import com.easyshop.auth.repository.UserRepository;
+import com.easyshop.auth.security.IpRateLimiter;
+import com.easyshop.auth.security.ReactiveIpRateLimiter;
+import com.easyshop.auth.service.EmailServiceInt;
+import com.easyshop.auth.service.impl.AuthService;
+import com.easyshop.auth.service.impl.OtpTransitions;
+import com.easyshop.auth.service.impl.ReactiveAuthService;
+import com.easyshop.auth.service.impl.ReactiveOtpService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Serves {@code /api/auth/**} from {@code ReactiveAuthController} when {@code easyshop.auth.reactive.enabled}
+ * is set. Handlers return {@code Mono}s, so Tomcat threads are released while Redis, JDBC and SMTP work is
+ * pending. Redis goes through reactive Lettuce; BCrypt and JDBC share one bounded scheduler sized like the
+ * connection pool, so a burst queues there instead of growing the thread count.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "easyshop.auth.reactive", name = "enabled", havingValue = "true")
+public class ReactiveAuthConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler authBlockingScheduler(@Value("${easyshop.auth.reactive.blocking-threads:10}") int threads,
+                                           @Value("${easyshop.auth.reactive.blocking-queue-capacity:1000}") int queueCapacity) {
+        return Schedulers.newBoundedElastic(Math.max(threads, 1), Math.max(queueCapacity, 1), "auth-blocking");
+    }
+
+    @Bean
+    public ReactiveOtpStateRepository reactiveOtpStateRepository(ReactiveStringRedisTemplate redis,
+                                                                 ObjectMapper objectMapper,
+                                                                 MeterRegistry meterRegistry) {
+        return new ReactiveOtpStateRepository(redis, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public ReactiveIpRateLimiter reactiveIpRateLimiter(IpRateLimiter ipRateLimiter,
+                                                       ReactiveStringRedisTemplate redis,
+                                                       MeterRegistry meterRegistry) {
+        return new ReactiveIpRateLimiter(ipRateLimiter, redis, meterRegistry);
+    }
+
+    @Bean
+    public ReactiveOtpService reactiveOtpService(OtpTransitions otpTransitions,
+                                                 ReactiveOtpStateRepository otpStateRepository,
+                                                 UserRepository userRepository,
+                                                 RegisteredEmailFilter registeredEmailFilter,
+                                                 PrimaryReadPinning primaryReadPinning,
+                                                 EmailServiceInt emailService,
+                                                 EmailHasher emailHasher,
+                                                 MeterRegistry meterRegistry,
+                                                 @Qualifier("authBlockingScheduler") Scheduler blockingScheduler) {
+        return new ReactiveOtpService(otpTransitions, otpStateRepository, userRepository, registeredEmailFilter,
+                primaryReadPinning, emailService, emailHasher, meterRegistry, blockingScheduler);
+    }
+
+    @Bean
+    public ReactiveAuthService reactiveAuthService(AuthService authService,
+                                                   ReactiveOtpService otpService,
+                                                   EmailHasher emailHasher,
+                                                   @Qualifier("authBlockingScheduler") Scheduler blockingScheduler) {
+        return new ReactiveAuthService(authService, otpService, emailHasher, blockingScheduler);
+    }
+}
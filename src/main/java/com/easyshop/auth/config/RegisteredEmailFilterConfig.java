@@ -0,0 +1,26 @@
+package com.easyshop.auth.config;
+
+import com.easyshop.auth.cache.RegisteredEmailFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Subscribes the registered email filter to registrations broadcast by the other nodes.
+ */
+@Configuration
+@ConditionalOnProperty(name = "easyshop.auth.email-filter.enabled", havingValue = "true", matchIfMissing = true)
+public class RegisteredEmailFilterConfig {
+
+    @Bean
+    public RedisMessageListenerContainer registeredEmailListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                          RegisteredEmailFilter registeredEmailFilter) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(registeredEmailFilter, new ChannelTopic(registeredEmailFilter.getChannel()));
+        return container;
+    }
+}
@@ -0,0 +1,82 @@
+package com.easyshop.auth.config;
+
+import com.easyshop.auth.context.RequestDeadline;
+import com.easyshop.auth.datasource.DeadlineAwareJpaTransactionManager;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.protocol.RedisCommand;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+/**
+ * Derives JDBC and Redis timeouts from the budget left on the current {@link RequestDeadline}.
+ * Outside a request with a deadline both keep their configured defaults.
+ */
+@Configuration
+public class RequestDeadlineConfig {
+
+    @Bean
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                    ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new DeadlineAwareJpaTransactionManager(entityManagerFactory);
+        customizers.ifAvailable(customizer -> customizer.customize(transactionManager));
+        return transactionManager;
+    }
+
+    /**
+     * Lettuce asks the timeout source on the calling thread when a command is written, so blocking commands
+     * see the request's deadline, capped at {@code spring.data.redis.timeout}; everything else gets that timeout.
+     * Installing the source replaces Boot's own timeout options, so the fallback has to be set here.
+     */
+    @Bean
+    public LettuceClientConfigurationBuilderCustomizer deadlineCommandTimeout(RedisProperties redisProperties) {
+        Duration configured = redisProperties.getTimeout();
+        long defaultTimeoutMillis = configured != null && configured.toMillis() > 0
+                ? configured.toMillis()
+                : DeadlineTimeoutSource.LETTUCE_DEFAULT_TIMEOUT_MS;
+        return builder -> {
+            // Keep the options Spring Boot already configured (connect timeout, SSL, cluster)
+            ClientOptions configured = builder.build().getClientOptions().orElseGet(ClientOptions::create);
+            builder.clientOptions(configured.mutate()
+                    .timeoutOptions(TimeoutOptions.builder()
+                            .timeoutCommands(true)
+                            .timeoutSource(new DeadlineTimeoutSource(defaultTimeoutMillis))
+                            .build())
+                    .build());
+        };
+    }
+
+    private static final class DeadlineTimeoutSource extends TimeoutOptions.TimeoutSource {
+
+        // RedisURI's default, used when spring.data.redis.timeout is unset; Lettuce treats <= 0 as no timeout
+        private static final long LETTUCE_DEFAULT_TIMEOUT_MS = 60_000;
+
+        private final long defaultTimeoutMillis;
+
+        DeadlineTimeoutSource(long defaultTimeoutMillis) {
+            this.defaultTimeoutMillis = defaultTimeoutMillis;
+        }
+
+        @Override
+        public long getTimeout(RedisCommand<?, ?, ?> command) {
+            long remainingNanos = RequestDeadline.remainingNanos();
+            if (remainingNanos == Long.MAX_VALUE) {
+                return defaultTimeoutMillis;
+            }
+            return Math.min(Math.max(TimeUnit.NANOSECONDS.toMillis(remainingNanos), 1), defaultTimeoutMillis);
+        }
+
+        @Override
+        public TimeUnit getTimeUnit() {
+            return TimeUnit.MILLISECONDS;
+        }
+    }
+}
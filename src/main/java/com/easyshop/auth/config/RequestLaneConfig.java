@@ -0,0 +1,19 @@
+package com.easyshop.auth.config;
+
+import com.easyshop.auth.limiter.LaneExecutors;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-lane BCrypt pools backing the {@code PasswordEncoder}; sized by {@code easyshop.auth.lanes.<lane>.*}.
+ */
+@Configuration
+public class RequestLaneConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public LaneExecutors laneExecutors(Environment environment, MeterRegistry meterRegistry) {
+        return new LaneExecutors(environment, meterRegistry);
+    }
+}
@@ -1,12 +1,21 @@
 package com.easyshop.auth.config;
 
+import com.easyshop.auth.jfr.TokenIssuedEvent;
 import com.easyshop.auth.model.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.core.OAuth2Token;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.server.authorization.token.DelegatingOAuth2TokenGenerator;
 import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
+import org.springframework.security.oauth2.server.authorization.token.JwtGenerator;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2AccessTokenGenerator;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2RefreshTokenGenerator;
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenGenerator;
 
 import java.util.List;
 
@@ -16,9 +25,44 @@ public class TokenCustomizationConfig {
     private static final String ACCESS_TOKEN_VALUE = "access_token";
     private static final String ID_TOKEN_VALUE = "id_token";
 
+    /**
+     * The authorization server's default generators, with the pending {@link TokenIssuedEvent} cleared after every
+     * token whether or not the encoder was reached.
+     */
     @Bean
-    public OAuth2TokenCustomizer<JwtEncodingContext> oauth2TokenCustomizer() {
+    public OAuth2TokenGenerator<OAuth2Token> tokenGenerator(JwtEncoder jwtEncoder,
+                                                            OAuth2TokenCustomizer<JwtEncodingContext> tokenCustomizer) {
+        JwtGenerator jwtGenerator = new JwtGenerator(jwtEncoder);
+        jwtGenerator.setJwtCustomizer(tokenCustomizer);
+        OAuth2TokenGenerator<OAuth2Token> delegate = new DelegatingOAuth2TokenGenerator(
+                jwtGenerator, new OAuth2AccessTokenGenerator(), new OAuth2RefreshTokenGenerator());
         return context -> {
+            try {
+                return delegate.generate(context);
+            } finally {
+                TokenIssuedEvent.discardPending();
+            }
+        };
+    }
+
+    @Bean
+    public OAuth2TokenCustomizer<JwtEncodingContext> oauth2TokenCustomizer(MeterRegistry meterRegistry) {
+        return context -> {
+            // Both tags come from small fixed sets defined by the authorization server
+            meterRegistry.counter("auth.tokens.issued",
+                    "token_type", context.getTokenType().getValue(),
+                    "grant_type", context.getAuthorizationGrantType().getValue()).increment();
+
+            // Committed by RecordingJwtEncoder once the token is signed
+            TokenIssuedEvent event = new TokenIssuedEvent();
+            if (event.isEnabled()) {
+                event.begin();
+                event.grantType = context.getAuthorizationGrantType().getValue();
+                event.clientId = context.getRegisteredClient().getClientId();
+                event.tokenType = context.getTokenType().getValue();
+                event.awaitSigning();
+            }
+
             Authentication authentication = context.getPrincipal();
             if (authentication == null) {
                 return;
@@ -0,0 +1,33 @@
+package com.easyshop.auth.config;
+
+import com.easyshop.auth.tracing.AuthTracer;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tracing beans on top of Spring Boot's Micrometer Tracing / OpenTelemetry auto-configuration, which owns
+ * sampling ({@code management.tracing.sampling.probability}), propagation and the OTLP exporter.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public AuthTracer authTracer(ObjectProvider<Tracer> tracer) {
+        return new AuthTracer(tracer.getIfAvailable(() -> Tracer.NOOP));
+    }
+
+    /**
+     * Writes finished spans as OTLP JSON lines to the application log, for use without a collector.
+     * Spring Boot registers every {@link SpanExporter} bean next to the OTLP one.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "easyshop.tracing.log-exporter", name = "enabled", havingValue = "true")
+    public SpanExporter loggingSpanExporter() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+}
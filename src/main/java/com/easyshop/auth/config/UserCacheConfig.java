@@ -0,0 +1,26 @@
+package com.easyshop.auth.config;
+
+import com.easyshop.auth.cache.UserDetailsCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Subscribes the user details near-cache to cross-node invalidation messages.
+ */
+@Configuration
+@ConditionalOnProperty(name = "easyshop.auth.user-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class UserCacheConfig {
+
+    @Bean
+    public RedisMessageListenerContainer userCacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                                UserDetailsCache userDetailsCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(userDetailsCache, new ChannelTopic(userDetailsCache.getChannel()));
+        return container;
+    }
+}
@@ -0,0 +1,48 @@
+package com.easyshop.auth.config.snapshot;
+
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Makes {@code spring.config.import} load the local config snapshot instead of calling the Config Server when a
+ * recent snapshot exists, so startup does not wait on the server.
+ * <p>
+ * Runs before Boot's config data processing and only contributes {@code easyshop.config.snapshot.import}, which
+ * {@code application.yml} uses as the import location. {@link ConfigSnapshotRefresher} keeps the file current.
+ */
+public class ConfigSnapshotEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+    private static final String IMPORT_PROPERTY = "easyshop.config.snapshot.import";
+    private static final String PROPERTY_SOURCE_NAME = "configSnapshotImport";
+    private static final long DEFAULT_MAX_AGE_HOURS = 168;
+
+    // ConfigDataEnvironmentPostProcessor runs at HIGHEST_PRECEDENCE + 10
+    private static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 5;
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        boolean enabled = environment.getProperty("easyshop.config.snapshot.enabled", Boolean.class,
+                environment.getProperty("CONFIG_SNAPSHOT_ENABLED", Boolean.class, true));
+        if (!enabled) {
+            return;
+        }
+        ConfigSnapshotFile snapshot = ConfigSnapshotFile.from(environment);
+        long maxAgeHours = environment.getProperty("easyshop.config.snapshot.max-age-hours", Long.class,
+                environment.getProperty("CONFIG_SNAPSHOT_MAX_AGE_HOURS", Long.class, DEFAULT_MAX_AGE_HOURS));
+        if (!snapshot.isUsable(Duration.ofHours(Math.max(maxAgeHours, 0)))) {
+            return;
+        }
+        environment.getPropertySources().addLast(new MapPropertySource(PROPERTY_SOURCE_NAME,
+                Map.of(IMPORT_PROPERTY, "optional:file:" + snapshot.getPath() + "[.properties]")));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,109 @@
+package com.easyshop.auth.config.snapshot;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Properties;
+import org.springframework.core.env.PropertyResolver;
+
+/**
+ * Local copy of the last configuration fetched from the Config Server, stored as a properties file.
+ * <p>
+ * The snapshot can contain credentials, so it is written owner-only and replaced atomically. It has to outlive the
+ * container to be of any use on the next start, so the default location is the volume declared in the Dockerfile.
+ */
+final class ConfigSnapshotFile {
+
+    private static final String DEFAULT_PATH = "/var/lib/auth-service/config-snapshot.properties";
+
+    private final Path path;
+
+    ConfigSnapshotFile(String path) {
+        this.path = Path.of(path).toAbsolutePath();
+    }
+
+    /**
+     * Resolves the snapshot location. The environment post-processor runs before {@code application.yml} is
+     * loaded, so the environment variable is consulted directly as well.
+     */
+    static ConfigSnapshotFile from(PropertyResolver resolver) {
+        String path = resolver.getProperty("easyshop.config.snapshot.path",
+                resolver.getProperty("CONFIG_SNAPSHOT_PATH", DEFAULT_PATH));
+        return new ConfigSnapshotFile(path);
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * True if the snapshot exists and was confirmed against the Config Server within {@code maxAge}.
+     */
+    boolean isUsable(Duration maxAge) {
+        try {
+            if (!Files.isRegularFile(path)) {
+                return false;
+            }
+            Instant confirmedAt = Files.getLastModifiedTime(path).toInstant();
+            return maxAge.isZero() || confirmedAt.plus(maxAge).isAfter(Instant.now());
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    Properties read() throws IOException {
+        Properties properties = new Properties();
+        if (Files.isRegularFile(path)) {
+            try (var reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+        }
+        return properties;
+    }
+
+    void write(Map<String, String> values) throws IOException {
+        Files.createDirectories(path.getParent());
+        Path temp = Files.createTempFile(path.getParent(), ".config-snapshot", ".tmp");
+        try {
+            restrictToOwner(temp);
+            Properties properties = new Properties();
+            properties.putAll(values);
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Config Server snapshot, written by auth-service");
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Marks the snapshot as confirmed when the Config Server returned the same values.
+     */
+    void touch() throws IOException {
+        if (Files.isRegularFile(path)) {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+        }
+    }
+
+    private static void restrictToOwner(Path file) throws IOException {
+        try {
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException ex) {
+            // Non-POSIX file system: rely on the directory permissions
+        }
+    }
+}
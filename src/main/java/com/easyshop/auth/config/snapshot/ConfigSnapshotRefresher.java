@@ -0,0 +1,215 @@
+package com.easyshop.auth.config.snapshot;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Fetches configuration from the Config Server in the background, persists it as the local snapshot and applies
+ * changes to runtime-safe keys without a restart.
+ * <p>
+ * Keys outside {@code easyshop.config.snapshot.runtime-keys} are only written to the snapshot and take effect on
+ * the next start. Applied values are placed just below OS environment variables, matching the precedence of the
+ * original Config Server import, and announced with an {@link EnvironmentChangeEvent}. Keys set by a source that
+ * outranks them (command line, system properties, environment variables) are skipped, since the fetched value
+ * would never become effective.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("${easyshop.config.snapshot.enabled:true} and '${easyshop.config.server-uri:}' != ''")
+public class ConfigSnapshotRefresher {
+
+    private static final String RUNTIME_SOURCE_NAME = "configServerRuntime";
+    // Boot's view over all other sources; it contains every key, so it says nothing about precedence
+    private static final String ATTACHED_SOURCE_NAME = "configurationProperties";
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_MAP = new ParameterizedTypeReference<>() {
+    };
+
+    private final ConfigurableEnvironment environment;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConfigSnapshotFile snapshot;
+    private final RestClient restClient;
+    private final String application;
+    private final List<String> runtimeKeyPrefixes;
+
+    private final Map<String, Object> runtimeValues = new HashMap<>();
+
+    public ConfigSnapshotRefresher(ConfigurableEnvironment environment,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${easyshop.config.server-uri}") String serverUri,
+                                   @Value("${spring.cloud.config.username:}") String username,
+                                   @Value("${spring.cloud.config.password:}") String password,
+                                   @Value("${spring.application.name}") String application,
+                                   @Value("${easyshop.config.snapshot.runtime-keys}") String runtimeKeys,
+                                   @Value("${easyshop.config.snapshot.fetch-timeout-ms:5000}") long fetchTimeoutMs) {
+        this.environment = environment;
+        this.eventPublisher = eventPublisher;
+        this.snapshot = ConfigSnapshotFile.from(environment);
+        this.application = application;
+        this.runtimeKeyPrefixes = Arrays.stream(runtimeKeys.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .toList();
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofMillis(fetchTimeoutMs));
+        requestFactory.setReadTimeout(Duration.ofMillis(fetchTimeoutMs));
+        RestClient.Builder builder = RestClient.builder()
+                .baseUrl(serverUri)
+                .requestFactory(requestFactory);
+        if (StringUtils.hasText(username)) {
+            builder.defaultHeaders(headers -> headers.setBasicAuth(username, password));
+        }
+        this.restClient = builder.build();
+    }
+
+    @Scheduled(initialDelayString = "${easyshop.config.snapshot.initial-delay-ms:0}",
+               fixedDelayString = "${easyshop.config.snapshot.refresh-interval-ms:300000}")
+    public void refresh() {
+        Map<String, String> fetched;
+        try {
+            fetched = fetch();
+        } catch (RestClientException ex) {
+            log.warn("Config Server refresh failed, keeping current configuration: {}", ex.getMessage());
+            return;
+        }
+
+        try {
+            Properties previous = snapshot.read();
+            if (previous.equals(toProperties(fetched))) {
+                snapshot.touch();
+            } else {
+                snapshot.write(fetched);
+                log.info("Config snapshot updated at {}.", snapshot.getPath());
+            }
+        } catch (IOException ex) {
+            log.warn("Could not write config snapshot {}: {}", snapshot.getPath(), ex.getMessage());
+        }
+
+        apply(fetched);
+    }
+
+    private Map<String, String> fetch() {
+        String profiles = environment.getActiveProfiles().length > 0
+                ? String.join(",", environment.getActiveProfiles())
+                : "default";
+        String label = environment.getProperty("spring.cloud.config.label");
+        Map<String, Object> body = StringUtils.hasText(label)
+                ? restClient.get().uri("/{application}/{profiles}/{label}", application, profiles, label)
+                        .retrieve().body(JSON_MAP)
+                : restClient.get().uri("/{application}/{profiles}", application, profiles)
+                        .retrieve().body(JSON_MAP);
+        if (body == null || !(body.get("propertySources") instanceof List<?> sources)) {
+            throw new RestClientException("Config Server response has no propertySources");
+        }
+
+        // The server lists sources highest precedence first
+        List<?> ordered = new ArrayList<>(sources);
+        Collections.reverse(ordered);
+        Map<String, String> merged = new LinkedHashMap<>();
+        for (Object source : ordered) {
+            if (source instanceof Map<?, ?> map && map.get("source") instanceof Map<?, ?> values) {
+                values.forEach((key, value) -> merged.put(String.valueOf(key), String.valueOf(value)));
+            }
+        }
+        return merged;
+    }
+
+    private void apply(Map<String, String> fetched) {
+        Set<String> applied = new TreeSet<>();
+        Set<String> needsRestart = new TreeSet<>();
+        for (Map.Entry<String, String> entry : fetched.entrySet()) {
+            String key = entry.getKey();
+            if (Objects.equals(environment.getProperty(key), entry.getValue()) || isOverridden(key)) {
+                continue;
+            }
+            if (isRuntimeKey(key)) {
+                applied.add(key);
+            } else {
+                needsRestart.add(key);
+            }
+        }
+        if (!needsRestart.isEmpty()) {
+            log.info("Config Server changed {} key(s) that take effect after restart: {}", needsRestart.size(), needsRestart);
+        }
+        if (applied.isEmpty()) {
+            return;
+        }
+
+        synchronized (runtimeValues) {
+            applied.forEach(key -> runtimeValues.put(key, fetched.get(key)));
+            MutablePropertySources sources = environment.getPropertySources();
+            MapPropertySource source = new MapPropertySource(RUNTIME_SOURCE_NAME, new HashMap<>(runtimeValues));
+            if (sources.contains(RUNTIME_SOURCE_NAME)) {
+                sources.replace(RUNTIME_SOURCE_NAME, source);
+            } else if (sources.contains(StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME)) {
+                sources.addAfter(StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME, source);
+            } else {
+                sources.addFirst(source);
+            }
+        }
+        log.info("Applied runtime configuration changes: {}", applied);
+        eventPublisher.publishEvent(new EnvironmentChangeEvent(applied));
+    }
+
+    /**
+     * True if a source ranked above the runtime values sets the key.
+     */
+    private boolean isOverridden(String key) {
+        for (PropertySource<?> source : environment.getPropertySources()) {
+            String name = source.getName();
+            if (RUNTIME_SOURCE_NAME.equals(name)) {
+                return false;
+            }
+            if (!ATTACHED_SOURCE_NAME.equals(name) && source.containsProperty(key)) {
+                return true;
+            }
+            if (StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME.equals(name)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private boolean isRuntimeKey(String key) {
+        for (String prefix : runtimeKeyPrefixes) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Properties toProperties(Map<String, String> values) {
+        Properties properties = new Properties();
+        properties.putAll(values);
+        return properties;
+    }
+}
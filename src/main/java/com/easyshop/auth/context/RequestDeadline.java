@@ -0,0 +1,56 @@
+package com.easyshop.auth.context;
+
+import com.easyshop.auth.exception.BusinessException;
+import com.easyshop.auth.exception.ErrorCode;
+
+/**
+ * Deadline of the request handled on the current thread, bound by {@link RequestDeadlineFilter}.
+ * <p>
+ * Expensive steps call {@link #check()} first, so work the gateway has already given up on is abandoned with
+ * 504 instead of hashing, writing and emailing for nobody. Without a bound deadline every check passes.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Throws {@link ErrorCode#DEADLINE_EXCEEDED} once the deadline has passed.
+     */
+    public static void check() {
+        if (isExpired()) {
+            throw BusinessException.of(ErrorCode.DEADLINE_EXCEEDED);
+        }
+    }
+
+    public static boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * Budget left in nanoseconds; {@link Long#MAX_VALUE} when no deadline is bound.
+     */
+    public static long remainingNanos() {
+        Long deadline = DEADLINE_NANOS.get();
+        return deadline == null ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+
+    /**
+     * Binds the deadline to this thread; returns the previous binding for {@link #exit(Long)}.
+     */
+    static Long enter(long deadlineNanos) {
+        Long previous = DEADLINE_NANOS.get();
+        DEADLINE_NANOS.set(deadlineNanos);
+        return previous;
+    }
+
+    static void exit(Long previous) {
+        if (previous == null) {
+            DEADLINE_NANOS.remove();
+        } else {
+            DEADLINE_NANOS.set(previous);
+        }
+    }
+}
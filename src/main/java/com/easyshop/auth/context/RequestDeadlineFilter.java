@@ -0,0 +1,161 @@
+package com.easyshop.auth.context;
+
+import com.easyshop.auth.exception.BusinessException;
+import com.easyshop.auth.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Binds a {@link RequestDeadline} for the request.
+ * <p>
+ * The gateway's budget is taken from {@code X-Request-Timeout-Ms} (relative) or {@code X-Request-Deadline}
+ * (epoch milliseconds), capped at {@code max-ms}; without either header the per-path default applies, and
+ * paths without a default run unbounded. Requests that arrive already expired, and work abandoned by a
+ * deadline check further down (including inside Spring Security), are answered with 504.
+ * <p>
+ * Runs ahead of the concurrency limit filter, so time spent queued for a lane counts against the budget.
+ */
+@Slf4j
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 2)
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    public static final String DEADLINE_HEADER = "X-Request-Deadline";
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private final HandlerExceptionResolver exceptionResolver;
+    private final boolean enabled;
+    private final long maxMillis;
+    private final Map<String, Long> defaultMillis;
+
+    private final Counter expiredOnArrival;
+    private final Counter abandoned;
+
+    public RequestDeadlineFilter(@Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${easyshop.auth.deadline.enabled:true}") boolean enabled,
+                                 @Value("${easyshop.auth.deadline.max-ms:30000}") long maxMillis,
+                                 @Value("${easyshop.auth.deadline.defaults:}") String defaults) {
+        this.exceptionResolver = exceptionResolver;
+        this.enabled = enabled;
+        this.maxMillis = Math.max(maxMillis, 1);
+        this.defaultMillis = parseDefaults(defaults);
+        this.expiredOnArrival = Counter.builder("auth.deadline.exceeded")
+                .description("Requests answered with 504 because their deadline had passed")
+                .tag("stage", "arrival")
+                .register(meterRegistry);
+        this.abandoned = Counter.builder("auth.deadline.exceeded")
+                .description("Requests answered with 504 because their deadline had passed")
+                .tag("stage", "in-flight")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        long budgetMillis = budgetMillis(request);
+        if (budgetMillis == Long.MAX_VALUE) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (budgetMillis <= 0) {
+            expiredOnArrival.increment();
+            reject(request, response);
+            return;
+        }
+
+        Long previous = RequestDeadline.enter(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis));
+        try {
+            chain.doFilter(request, response);
+        } catch (RuntimeException | ServletException ex) {
+            // Deadline checks inside Spring Security filters never reach the MVC exception handler
+            if (!isDeadlineExceeded(ex) || response.isCommitted()) {
+                throw ex;
+            }
+            abandoned.increment();
+            reject(request, response);
+        } finally {
+            RequestDeadline.exit(previous);
+        }
+    }
+
+    /**
+     * Milliseconds left for the request; {@link Long#MAX_VALUE} when it has no deadline.
+     */
+    private long budgetMillis(HttpServletRequest request) {
+        Long timeout = parseLong(request, TIMEOUT_HEADER);
+        if (timeout != null) {
+            return Math.min(timeout, maxMillis);
+        }
+        Long deadline = parseLong(request, DEADLINE_HEADER);
+        if (deadline != null) {
+            return Math.min(deadline - System.currentTimeMillis(), maxMillis);
+        }
+        return defaultMillis.getOrDefault(request.getRequestURI(), Long.MAX_VALUE);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) {
+        exceptionResolver.resolveException(request, response, null,
+                BusinessException.of(ErrorCode.DEADLINE_EXCEEDED));
+    }
+
+    private static boolean isDeadlineExceeded(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BusinessException business
+                    && business.getErrorCode() == ErrorCode.DEADLINE_EXCEEDED) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Long parseLong(HttpServletRequest request, String header) {
+        String value = request.getHeader(header);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            log.debug("Ignoring malformed {} header: {}", header, value);
+            return null;
+        }
+    }
+
+    private static Map<String, Long> parseDefaults(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return Map.of();
+        }
+        return Stream.of(raw.split(","))
+                .map(String::trim)
+                .filter(entry -> entry.contains("="))
+                .map(entry -> entry.split("=", 2))
+                .collect(Collectors.toUnmodifiableMap(
+                        entry -> entry[0].trim(),
+                        entry -> Math.max(Long.parseLong(entry[1].trim()), 1)));
+    }
+}
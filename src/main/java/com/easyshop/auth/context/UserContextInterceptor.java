@@ -15,13 +15,19 @@ import org.springframework.web.servlet.HandlerInterceptor;
 @Component
 public class UserContextInterceptor implements HandlerInterceptor {
 
+    /** Resolved client address, for handlers that apply the rate limit themselves. */
+    public static final String CLIENT_IP_ATTRIBUTE = UserContextInterceptor.class.getName() + ".clientIp";
+
     private final IpRateLimiter ipRateLimiter;
     private final Set<String> trustedProxies;
+    private final boolean reactive;
 
     public UserContextInterceptor(IpRateLimiter ipRateLimiter,
-                                  @Value("${easyshop.auth.trusted-proxies}") String trustedProxyList) {
+                                  @Value("${easyshop.auth.trusted-proxies}") String trustedProxyList,
+                                  @Value("${easyshop.auth.reactive.enabled:false}") boolean reactive) {
         this.ipRateLimiter = ipRateLimiter;
         this.trustedProxies = parseTrustedProxies(trustedProxyList);
+        this.reactive = reactive;
     }
 
     @Override
@@ -29,7 +35,11 @@ public class UserContextInterceptor implements HandlerInterceptor {
                              @NonNull HttpServletResponse response,
                              @NonNull Object handler) {
         String clientIp = resolveClientIp(request);
-        ipRateLimiter.check(request.getRequestURI(), clientIp);
+        request.setAttribute(CLIENT_IP_ATTRIBUTE, clientIp);
+        // ReactiveAuthController checks on reactive Redis instead of blocking this thread
+        if (!reactive) {
+            ipRateLimiter.check(request.getRequestURI(), clientIp);
+        }
         return true;
     }
 
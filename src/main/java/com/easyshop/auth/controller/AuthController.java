@@ -10,6 +10,7 @@ import com.easyshop.auth.service.AuthServiceInt;
 import com.easyshop.auth.service.OtpServiceInt;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -20,6 +21,7 @@ import org.springframework.web.bind.annotation.RestController;
 @Slf4j
 @RestController
 @RequestMapping("/api/auth")
+@ConditionalOnProperty(prefix = "easyshop.auth.reactive", name = "enabled", havingValue = "false", matchIfMissing = true)
 public class AuthController {
 
     private final AuthServiceInt authService;
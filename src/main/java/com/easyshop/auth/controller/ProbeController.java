@@ -0,0 +1,75 @@
+package com.easyshop.auth.controller;
+
+import com.easyshop.auth.health.DependencyProbes;
+import com.easyshop.auth.health.DependencyProbes.Dependency;
+import com.easyshop.auth.health.ProbeResult;
+import com.easyshop.auth.warmup.StartupWarmup;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Kubernetes probes.
+ * <p>
+ * {@code /healthz} (liveness) only reflects the JVM and Spring context; a dependency outage must not restart
+ * the pod. {@code /readyz} additionally requires finished warm-up and healthy dependencies, read from the
+ * cached results of {@link DependencyProbes} so a probe never does I/O.
+ */
+@RestController
+public class ProbeController {
+
+    private static final ResponseEntity<Map<String, Object>> LIVE =
+            ResponseEntity.ok(Map.of("status", "UP"));
+    private static final ResponseEntity<Map<String, Object>> BROKEN =
+            ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("status", "DOWN"));
+    private static final ResponseEntity<Map<String, Object>> WARMING_UP =
+            ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("status", "WARMING_UP"));
+    private static final ResponseEntity<Map<String, Object>> REFUSING =
+            ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("status", "OUT_OF_SERVICE"));
+
+    private final StartupWarmup startupWarmup;
+    private final DependencyProbes dependencyProbes;
+    private final ApplicationAvailability availability;
+
+    public ProbeController(StartupWarmup startupWarmup,
+                           DependencyProbes dependencyProbes,
+                           ApplicationAvailability availability) {
+        this.startupWarmup = startupWarmup;
+        this.dependencyProbes = dependencyProbes;
+        this.availability = availability;
+    }
+
+    @GetMapping("/healthz")
+    public ResponseEntity<Map<String, Object>> healthz() {
+        return availability.getLivenessState() == LivenessState.BROKEN ? BROKEN : LIVE;
+    }
+
+    @GetMapping("/readyz")
+    public ResponseEntity<Map<String, Object>> readyz() {
+        if (availability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            return REFUSING;
+        }
+        if (!startupWarmup.isComplete()) {
+            return WARMING_UP;
+        }
+
+        boolean ready = true;
+        Map<String, Object> checks = new LinkedHashMap<>();
+        for (Map.Entry<Dependency, ProbeResult> entry : dependencyProbes.snapshot().entrySet()) {
+            ProbeResult result = entry.getValue();
+            checks.put(entry.getKey().name().toLowerCase(Locale.ROOT), result.getStatus().name());
+            if (!result.isUp() && dependencyProbes.isRequired(entry.getKey())) {
+                ready = false;
+            }
+        }
+        Map<String, Object> body = Map.of("status", ready ? "UP" : "DOWN", "checks", checks);
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(body);
+    }
+}
@@ -0,0 +1,100 @@
+package com.easyshop.auth.controller;
+
+import com.easyshop.auth.context.RequestDeadline;
+import com.easyshop.auth.context.UserContextInterceptor;
+import com.easyshop.auth.exception.BusinessException;
+import com.easyshop.auth.exception.ErrorCode;
+import com.easyshop.auth.model.dto.AuthDto;
+import com.easyshop.auth.model.dto.OtpSendDto;
+import com.easyshop.auth.model.dto.OtpSendResultDto;
+import com.easyshop.auth.model.dto.PasswordResetDto;
+import com.easyshop.auth.model.dto.VerifyCodeDto;
+import com.easyshop.auth.model.dto.VerifyCodeResponseDto;
+import com.easyshop.auth.security.ReactiveIpRateLimiter;
+import com.easyshop.auth.service.impl.ReactiveAuthService;
+import com.easyshop.auth.service.impl.ReactiveOtpService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import java.time.Duration;
+import java.util.Locale;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of {@link AuthController}, enabled by {@code easyshop.auth.reactive.enabled}.
+ * Same routes, bodies and error responses; the IP rate limit is checked here on reactive Redis instead of in
+ * {@link UserContextInterceptor}.
+ * <p>
+ * This is still Spring MVC on Tomcat, not WebFlux: the handlers return {@link Mono} and MVC completes the response
+ * through servlet async processing, so the request thread is released while the OTP state round-trips to Redis.
+ */
+@RestController
+@RequestMapping("/api/auth")
+@ConditionalOnProperty(prefix = "easyshop.auth.reactive", name = "enabled", havingValue = "true")
+public class ReactiveAuthController {
+
+    private final ReactiveAuthService authService;
+    private final ReactiveOtpService otpService;
+    private final ReactiveIpRateLimiter ipRateLimiter;
+
+    public ReactiveAuthController(ReactiveAuthService authService,
+                                  ReactiveOtpService otpService,
+                                  ReactiveIpRateLimiter ipRateLimiter) {
+        this.authService = authService;
+        this.otpService = otpService;
+        this.ipRateLimiter = ipRateLimiter;
+    }
+
+    @PostMapping(value = "/register", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<OtpSendResultDto>> register(@Valid @RequestBody AuthDto dto,
+                                                           HttpServletRequest request) {
+        Locale locale = LocaleContextHolder.getLocale();
+        return rateLimited(request, authService.register(dto, locale))
+                .map(result -> ResponseEntity.accepted().body(result));
+    }
+
+    @PostMapping(value = "/send-code", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<OtpSendResultDto>> sendVerificationCode(@Valid @RequestBody OtpSendDto dto,
+                                                                       HttpServletRequest request) {
+        Locale locale = LocaleContextHolder.getLocale();
+        return rateLimited(request, otpService.generateOtp(dto.getEmail(), false, locale))
+                .map(result -> ResponseEntity.accepted().body(result));
+    }
+
+    @PostMapping(value = "/verify-code", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<VerifyCodeResponseDto>> verifyCode(@Valid @RequestBody VerifyCodeDto dto,
+                                                                  HttpServletRequest request) {
+        return rateLimited(request, otpService.verifyOtp(dto))
+                .map(ResponseEntity::ok)                            // forgot login flow
+                .defaultIfEmpty(ResponseEntity.noContent().build()); // registration flow
+    }
+
+    @PostMapping(value = "/reset-password", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Void>> resetPassword(@Valid @RequestBody PasswordResetDto body,
+                                                    HttpServletRequest request) {
+        return rateLimited(request, authService.resetPassword(body))
+                .then(Mono.fromSupplier(() -> ResponseEntity.accepted().<Void>build()));
+    }
+
+    /**
+     * Request data and the deadline are read here, on the servlet thread; the returned chain may run on any
+     * thread, so the deadline is enforced as a timeout instead of per-step checks.
+     */
+    private <T> Mono<T> rateLimited(HttpServletRequest request, Mono<T> action) {
+        String clientIp = (String) request.getAttribute(UserContextInterceptor.CLIENT_IP_ATTRIBUTE);
+        long budget = RequestDeadline.remainingNanos();
+        Mono<T> limited = ipRateLimiter.check(request.getRequestURI(), clientIp).then(action);
+        if (budget == Long.MAX_VALUE) {
+            return limited;
+        }
+        return limited.timeout(Duration.ofNanos(Math.max(budget, 0)),
+                Mono.error(() -> BusinessException.of(ErrorCode.DEADLINE_EXCEEDED)));
+    }
+}
@@ -0,0 +1,5 @@
+package com.easyshop.auth.datasource;
+
+public enum DataSourceRoute {
+    PRIMARY, REPLICA
+}
@@ -0,0 +1,31 @@
+package com.easyshop.auth.datasource;
+
+import com.easyshop.auth.context.RequestDeadline;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * Caps each transaction's timeout at the budget left on the {@link RequestDeadline}, so JPA queries run with a
+ * statement timeout instead of outliving the request. JDBC timeouts are whole seconds, so the budget is rounded
+ * up and is at least one second; an explicitly shorter transaction timeout still wins.
+ */
+public class DeadlineAwareJpaTransactionManager extends JpaTransactionManager {
+
+    public DeadlineAwareJpaTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int configured = super.determineTimeout(definition);
+        long remainingNanos = RequestDeadline.remainingNanos();
+        if (remainingNanos == Long.MAX_VALUE) {
+            return configured;
+        }
+        long remainingSeconds = TimeUnit.NANOSECONDS.toSeconds(Math.max(remainingNanos, 0) + 999_999_999L);
+        int budget = (int) Math.min(Math.max(remainingSeconds, 1), Integer.MAX_VALUE);
+        return configured == TransactionDefinition.TIMEOUT_DEFAULT ? budget : Math.min(configured, budget);
+    }
+}
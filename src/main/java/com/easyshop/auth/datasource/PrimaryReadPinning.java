@@ -0,0 +1,80 @@
+package com.easyshop.auth.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Keeps read-your-own-writes flows on the primary database.
+ * <p>
+ * Code can force the primary for the current thread with {@link #callOnPrimary(Supplier)}. Accounts that were
+ * just written (registration, activation, password change) are additionally pinned for a short window, on the
+ * writing node and, through the user cache invalidation broadcast, on its peers; login and OTP lookups of a pinned
+ * account skip the replica. The window never ends before the lag monitor would have noticed a replica falling
+ * behind, so any other account read from the replica is at most {@code max-lag-ms} old.
+ */
+@Component
+public class PrimaryReadPinning {
+
+    private static final ThreadLocal<Integer> FORCED_PRIMARY = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final Cache<String, Boolean> pinnedEmails;
+
+    public PrimaryReadPinning(@Value("${easyshop.datasource.replica.url:}") String replicaUrl,
+                              @Value("${easyshop.datasource.replica.pin-seconds:30}") long pinSeconds,
+                              @Value("${easyshop.datasource.replica.max-lag-ms:2000}") long maxLagMs,
+                              @Value("${easyshop.datasource.replica.lag-check-interval-ms:5000}") long lagCheckIntervalMs) {
+        this.enabled = StringUtils.hasText(replicaUrl);
+        Duration lagBound = Duration.ofMillis(Math.max(maxLagMs, 0) + Math.max(lagCheckIntervalMs, 0));
+        this.pinnedEmails = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(lagBound.max(Duration.ofSeconds(Math.max(pinSeconds, 1))))
+                .build();
+    }
+
+    public static <T> T callOnPrimary(Supplier<T> action) {
+        Integer depth = FORCED_PRIMARY.get();
+        FORCED_PRIMARY.set(depth == null ? 1 : depth + 1);
+        try {
+            return action.get();
+        } finally {
+            if (depth == null) {
+                FORCED_PRIMARY.remove();
+            } else {
+                FORCED_PRIMARY.set(depth);
+            }
+        }
+    }
+
+    public static void runOnPrimary(Runnable action) {
+        callOnPrimary(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    static boolean isPrimaryForced() {
+        return FORCED_PRIMARY.get() != null;
+    }
+
+    public void pin(String email) {
+        if (enabled && email != null) {
+            pinnedEmails.put(email, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Runs the read on the primary when the account was written recently, otherwise lets routing decide.
+     */
+    public <T> T read(String email, Supplier<T> action) {
+        if (enabled && email != null && pinnedEmails.getIfPresent(email) != null) {
+            return callOnPrimary(action);
+        }
+        return action.get();
+    }
+}
@@ -0,0 +1,28 @@
+package com.easyshop.auth.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica unless the current thread is pinned to the primary
+ * or the replica is lagging. Must be wrapped in a {@code LazyConnectionDataSourceProxy} so the route is
+ * chosen after the transaction's read-only flag is known.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReadReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !PrimaryReadPinning.isPrimaryForced()
+                && lagMonitor.isReplicaUsable()) {
+            return DataSourceRoute.REPLICA;
+        }
+        return DataSourceRoute.PRIMARY;
+    }
+}
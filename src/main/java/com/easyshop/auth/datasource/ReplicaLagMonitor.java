@@ -0,0 +1,65 @@
+package com.easyshop.auth.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Periodically measures replication lag on the replica and disables replica routing while it is too far behind
+ * or unreachable. The replica starts as unusable until the first successful probe.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // A caught-up replica on an idle primary has an old replay timestamp, so compare LSNs first
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END""";
+
+    private final JdbcTemplate replica;
+    private final double maxLagSeconds;
+
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.replica.setQueryTimeout(2);
+        this.maxLagSeconds = Math.max(maxLag.toMillis(), 1) / 1000.0;
+
+        Gauge.builder("auth.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("auth.datasource.replica.usable", this, monitor -> monitor.usable ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${easyshop.datasource.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            Double lag = replica.queryForObject(LAG_QUERY, Double.class);
+            lagSeconds = lag != null ? lag : Double.NaN;
+            usable = lag != null && lag <= maxLagSeconds;
+        } catch (DataAccessException ex) {
+            lagSeconds = Double.NaN;
+            usable = false;
+        }
+        if (wasUsable != usable) {
+            log.warn("Read replica {} (lag {}s, max {}s).",
+                    usable ? "enabled" : "disabled, routing reads to primary", lagSeconds, maxLagSeconds);
+        }
+    }
+}
@@ -1,38 +1,79 @@
 package com.easyshop.auth.exception;
 
-import lombok.Getter;
-
 import java.text.MessageFormat;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
 
 
+/**
+ * Expected failure mapped to an {@link ErrorCode}.
+ * <p>
+ * Client errors (4xx) are normal outcomes such as a wrong OTP or a rate-limit rejection, so they are created
+ * without a stack trace, as are load shedding (503) and abandoned work (504); other 5xx errors keep theirs
+ * for diagnosis. For these stackless codes {@link #of(ErrorCode)} returns a shared, preallocated instance.
+ */
 @Getter
 public class BusinessException extends RuntimeException {
 
+    private static final Map<ErrorCode, BusinessException> PREALLOCATED = preallocate();
+
     private final ErrorCode errorCode;
     private final Object[] messageArgs;
 
     public BusinessException(ErrorCode errorCode) {
-        super(errorCode.getMessage());
-        this.errorCode = errorCode;
-        this.messageArgs = null;
+        this(errorCode, null, (Object[]) null);
     }
 
     public BusinessException(ErrorCode errorCode, Object... messageArgs) {
-        super(formatMessage(errorCode.getMessage(), messageArgs));
-        this.errorCode = errorCode;
-        this.messageArgs = messageArgs;
+        this(errorCode, null, messageArgs);
     }
 
     public BusinessException(ErrorCode errorCode, Throwable cause) {
-        super(errorCode.getMessage(), cause);
+        this(errorCode, cause, (Object[]) null);
+    }
+
+    private BusinessException(ErrorCode errorCode, Throwable cause, Object[] messageArgs) {
+        // Suppression is disabled too, so a shared instance never accumulates state
+        super(null, cause, false, isServerError(errorCode) || cause != null);
         this.errorCode = errorCode;
-        this.messageArgs = null;
+        this.messageArgs = messageArgs != null && messageArgs.length > 0 ? messageArgs : null;
+    }
+
+    /**
+     * Shared instance for a client error without message arguments; a new exception otherwise.
+     */
+    public static BusinessException of(ErrorCode errorCode) {
+        BusinessException shared = PREALLOCATED.get(errorCode);
+        return shared != null ? shared : new BusinessException(errorCode);
+    }
+
+    /**
+     * Formatted lazily: rejections rendered from a prepared body never need it.
+     */
+    @Override
+    public String getMessage() {
+        if (messageArgs == null) {
+            return errorCode.getMessage();
+        }
+        return MessageFormat.format(errorCode.getMessage(), messageArgs);
+    }
+
+    private static boolean isServerError(ErrorCode errorCode) {
+        HttpStatus status = errorCode.getHttpStatus();
+        return status.is5xxServerError()
+                && status != HttpStatus.SERVICE_UNAVAILABLE
+                && status != HttpStatus.GATEWAY_TIMEOUT;
     }
 
-    private static String formatMessage(String pattern, Object[] args) {
-        if (args == null || args.length == 0) {
-            return pattern;
+    private static Map<ErrorCode, BusinessException> preallocate() {
+        Map<ErrorCode, BusinessException> instances = new EnumMap<>(ErrorCode.class);
+        for (ErrorCode code : ErrorCode.values()) {
+            if (!isServerError(code)) {
+                instances.put(code, new BusinessException(code));
+            }
         }
-        return MessageFormat.format(pattern, args);
+        return instances;
     }
 }
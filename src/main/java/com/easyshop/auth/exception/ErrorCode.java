@@ -62,6 +62,13 @@ public enum ErrorCode {
     DATABASE_ERROR("Database error occurred", HttpStatus.INTERNAL_SERVER_ERROR),
     EXTERNAL_SERVICE_ERROR("External service error", HttpStatus.BAD_GATEWAY),
     EMAIL_SEND_ERROR("Failed to send email", HttpStatus.INTERNAL_SERVER_ERROR),
+    SERVICE_OVERLOADED("Service is overloaded. Try again later", HttpStatus.SERVICE_UNAVAILABLE),
+    DEADLINE_EXCEEDED("Request deadline exceeded", HttpStatus.GATEWAY_TIMEOUT),
+
+    // ========== Idempotency Errors ==========
+    IDEMPOTENCY_KEY_INVALID("Idempotency-Key must be 1 to 255 visible ASCII characters", HttpStatus.BAD_REQUEST),
+    IDEMPOTENCY_KEY_REUSED("Idempotency-Key was already used for a different request", HttpStatus.UNPROCESSABLE_ENTITY),
+    IDEMPOTENCY_REQUEST_IN_PROGRESS("A request with this Idempotency-Key is still in progress", HttpStatus.CONFLICT),
 
     // ========== Generic Errors ==========
     OPERATION_FAILED("Operation failed", HttpStatus.INTERNAL_SERVER_ERROR),
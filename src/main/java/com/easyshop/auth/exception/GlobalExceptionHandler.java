@@ -1,5 +1,6 @@
 package com.easyshop.auth.exception;
 
+import com.easyshop.auth.context.RequestDeadline;
 import com.easyshop.auth.model.dto.error.ErrorResponse;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,6 +13,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.env.Environment;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.validation.FieldError;
@@ -128,38 +130,29 @@ public class GlobalExceptionHandler {
 
     /**
      * Handles all custom business logic exceptions.
+     * The body is written from bytes prepared per error code instead of building and serializing an
+     * {@link ErrorResponse}; expected rejections are the hottest error path.
      */
     @ExceptionHandler(BusinessException.class)
-    public ResponseEntity<ErrorResponse> handleBusinessException(
+    public ResponseEntity<byte[]> handleBusinessException(
             BusinessException ex,
             HttpServletRequest request) {
 
         ErrorCode errorCode = ex.getErrorCode();
         HttpStatus httpStatus = errorCode.getHttpStatus();
 
-        ErrorResponse.ErrorResponseBuilder builder = ErrorResponse.builder()
-                .detail(ex.getMessage())
-                .errorCode(errorCode.name())
-                .status(httpStatus.name())
-                .statusCode(httpStatus.value())
-                .path(request.getRequestURI());
-
-        // Add retry-after for rate limit exceptions
-        if (ex instanceof RateLimitExceededException rateLimitEx) {
-            builder.retryAfterSeconds((long) rateLimitEx.getRetryAfterSeconds());
-            builder.cooldownUntil(rateLimitEx.getCooldownUntil());
-        }
-
-        ErrorResponse response = builder.build();
-
-        // Log based on severity
-        if (httpStatus.is5xxServerError()) {
+        // Log based on severity; shed requests are already counted by the concurrency limiter
+        if (httpStatus == HttpStatus.SERVICE_UNAVAILABLE) {
+            log.debug("Request shed at {}", request.getRequestURI());
+        } else if (httpStatus.is5xxServerError() && httpStatus != HttpStatus.GATEWAY_TIMEOUT) {
             log.error("Business exception at {}: {}", request.getRequestURI(), ex.getMessage(), ex);
         } else {
-            log.warn("Business exception at {}: {} - {}", request.getRequestURI(), errorCode, ex.getMessage());
+            log.warn("Business exception at {}: {}", request.getRequestURI(), errorCode);
         }
 
-        return ResponseEntity.status(httpStatus).body(response);
+        return ResponseEntity.status(httpStatus)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(PreparedErrorBodies.render(ex, request.getRequestURI()));
     }
 
     /**
@@ -206,13 +199,18 @@ public class GlobalExceptionHandler {
     }
 
     /**
-     * Handles database errors.
+     * Handles database errors. A timeout caused by the request's own deadline is answered as
+     * {@link ErrorCode#DEADLINE_EXCEEDED}, not as a database failure.
      */
     @ExceptionHandler({DataAccessException.class, SQLException.class})
-    public ResponseEntity<ErrorResponse> handleDatabaseError(
+    public ResponseEntity<?> handleDatabaseError(
             Exception ex,
             HttpServletRequest request) {
 
+        if (RequestDeadline.isExpired()) {
+            return handleBusinessException(BusinessException.of(ErrorCode.DEADLINE_EXCEEDED), request);
+        }
+
         ErrorResponse.ErrorResponseBuilder builder = ErrorResponse.builder()
                 .detail(ErrorCode.DATABASE_ERROR.getMessage())
                 .errorCode(ErrorCode.DATABASE_ERROR.name())
@@ -0,0 +1,86 @@
+package com.easyshop.auth.exception;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * JSON bodies for {@link BusinessException} responses, assembled from byte chunks prepared once per
+ * {@link ErrorCode}. Only the request path, timestamp and rate-limit fields are encoded per response.
+ * The output has the same fields as a serialized {@code ErrorResponse}.
+ */
+final class PreparedErrorBodies {
+
+    private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+
+    private static final byte[] HEAD = ascii("{\"ok\":false,\"detail\":");
+    private static final byte[] TIMESTAMP = ascii(",\"timestamp\":\"");
+    private static final byte[] RETRY_AFTER = ascii(",\"retryAfterSeconds\":");
+    private static final byte[] COOLDOWN_UNTIL = ascii(",\"cooldownUntil\":\"");
+
+    private static final Map<ErrorCode, Prepared> PREPARED = prepare();
+
+    private PreparedErrorBodies() {
+    }
+
+    static byte[] render(BusinessException ex, String path) {
+        Prepared prepared = PREPARED.get(ex.getErrorCode());
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        out.writeBytes(HEAD);
+        if (ex.getMessageArgs() == null) {
+            out.writeBytes(prepared.detail());
+        } else {
+            writeString(out, ex.getMessage());
+        }
+        out.writeBytes(prepared.fields());
+        writeString(out, path);
+        out.writeBytes(TIMESTAMP);
+        out.writeBytes(ascii(Instant.now().toString()));
+        out.write('"');
+        if (ex instanceof RateLimitExceededException rateLimitEx) {
+            out.writeBytes(RETRY_AFTER);
+            out.writeBytes(ascii(Long.toString(rateLimitEx.getRetryAfterSeconds())));
+            if (rateLimitEx.getCooldownUntil() != null) {
+                out.writeBytes(COOLDOWN_UNTIL);
+                out.writeBytes(ascii(rateLimitEx.getCooldownUntil().toString()));
+                out.write('"');
+            }
+        }
+        out.write('}');
+        return out.toByteArray();
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            out.writeBytes(ascii("null"));
+            return;
+        }
+        out.write('"');
+        out.writeBytes(ENCODER.quoteAsUTF8(value));
+        out.write('"');
+    }
+
+    private static Map<ErrorCode, Prepared> prepare() {
+        Map<ErrorCode, Prepared> prepared = new EnumMap<>(ErrorCode.class);
+        for (ErrorCode code : ErrorCode.values()) {
+            ByteArrayOutputStream detail = new ByteArrayOutputStream();
+            writeString(detail, code.getMessage());
+            byte[] fields = ascii(",\"errorCode\":\"" + code.name()
+                    + "\",\"status\":\"" + code.getHttpStatus().name()
+                    + "\",\"statusCode\":" + code.getHttpStatus().value()
+                    + ",\"path\":");
+            prepared.put(code, new Prepared(detail.toByteArray(), fields));
+        }
+        return prepared;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private record Prepared(byte[] detail, byte[] fields) {
+    }
+}
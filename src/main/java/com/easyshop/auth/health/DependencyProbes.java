@@ -0,0 +1,154 @@
+package com.easyshop.auth.health;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.KeyType;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Probes the service's dependencies on a schedule and keeps the latest result in memory, so the readiness
+ * endpoint never opens a connection itself.
+ * <p>
+ * Database, Redis and the signing key are probed every {@code probe-interval-ms}; SMTP is slower to test and
+ * is probed on its own interval. A result older than three intervals is treated as down.
+ */
+@Slf4j
+@Component
+public class DependencyProbes {
+
+    public enum Dependency {
+        DB, REDIS, SMTP, KEYS
+    }
+
+    private static final byte[] SIGNING_PROBE = "readiness".getBytes(StandardCharsets.US_ASCII);
+
+    private final JdbcTemplate jdbc;
+    private final RedisTemplate<String, String> redis;
+    private final JavaMailSender mailSender;
+    private final JWKSource<SecurityContext> jwkSource;
+    private final boolean smtpRequired;
+    private final long fastStaleNanos;
+    private final long smtpStaleNanos;
+
+    private final Map<Dependency, ProbeResult> results = new EnumMap<>(Dependency.class);
+
+    public DependencyProbes(DataSource dataSource,
+                            RedisTemplate<String, String> redis,
+                            JavaMailSender mailSender,
+                            JWKSource<SecurityContext> jwkSource,
+                            @Value("${easyshop.auth.health.smtp-required:false}") boolean smtpRequired,
+                            @Value("${easyshop.auth.health.probe-interval-ms:5000}") long probeIntervalMs,
+                            @Value("${easyshop.auth.health.smtp-probe-interval-ms:60000}") long smtpProbeIntervalMs) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setQueryTimeout(2);
+        this.redis = redis;
+        this.mailSender = mailSender;
+        this.jwkSource = jwkSource;
+        this.smtpRequired = smtpRequired;
+        this.fastStaleNanos = Math.max(probeIntervalMs, 1) * 3_000_000L;
+        this.smtpStaleNanos = Math.max(smtpProbeIntervalMs, 1) * 3_000_000L;
+        for (Dependency dependency : Dependency.values()) {
+            results.put(dependency, ProbeResult.UNKNOWN);
+        }
+    }
+
+    public boolean isRequired(Dependency dependency) {
+        return dependency != Dependency.SMTP || smtpRequired;
+    }
+
+    /**
+     * Latest result per dependency, with results that have not been refreshed in time reported as stale.
+     */
+    public Map<Dependency, ProbeResult> snapshot() {
+        long now = System.nanoTime();
+        Map<Dependency, ProbeResult> copy = new EnumMap<>(Dependency.class);
+        synchronized (results) {
+            results.forEach((dependency, result) -> copy.put(dependency,
+                    result.isStale(now, dependency == Dependency.SMTP ? smtpStaleNanos : fastStaleNanos)
+                            ? ProbeResult.STALE : result));
+        }
+        return copy;
+    }
+
+    @Scheduled(fixedDelayString = "${easyshop.auth.health.probe-interval-ms:5000}")
+    public void probe() {
+        record(Dependency.DB, () -> jdbc.queryForObject("SELECT 1", Integer.class));
+        record(Dependency.REDIS, () -> redis.execute(RedisConnection::ping, true));
+        record(Dependency.KEYS, this::checkSigningKey);
+    }
+
+    @Scheduled(fixedDelayString = "${easyshop.auth.health.smtp-probe-interval-ms:60000}")
+    public void probeSmtp() {
+        record(Dependency.SMTP, () -> {
+            if (mailSender instanceof JavaMailSenderImpl impl) {
+                impl.testConnection();
+            }
+        });
+    }
+
+    private void checkSigningKey() throws Exception {
+        // Signing once proves the private key is present and usable, not just that the JWK set is non-empty
+        JWKSelector selector = new JWKSelector(new JWKMatcher.Builder()
+                .keyType(KeyType.RSA)
+                .privateOnly(true)
+                .build());
+        List<JWK> keys = jwkSource.get(selector, null);
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("No RSA signing key available");
+        }
+        RSAKey key = keys.get(0).toRSAKey();
+        try {
+            new RSASSASigner(key).sign(new JWSHeader(JWSAlgorithm.RS256), SIGNING_PROBE);
+        } catch (JOSEException ex) {
+            throw new IllegalStateException("Signing key unusable", ex);
+        }
+    }
+
+    private void record(Dependency dependency, Check check) {
+        ProbeResult result;
+        long started = System.nanoTime();
+        try {
+            check.run();
+            result = ProbeResult.up(System.nanoTime(), System.nanoTime() - started);
+        } catch (Exception ex) {
+            result = ProbeResult.down(System.nanoTime(), ex.getClass().getSimpleName());
+        }
+        ProbeResult previous;
+        synchronized (results) {
+            previous = results.put(dependency, result);
+        }
+        if (previous.isUp() != result.isUp()) {
+            if (result.isUp()) {
+                log.info("Dependency {} is up.", dependency);
+            } else {
+                log.warn("Dependency {} is down: {}", dependency, result.getError());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        void run() throws Exception;
+    }
+}
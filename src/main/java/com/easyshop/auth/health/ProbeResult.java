@@ -0,0 +1,41 @@
+package com.easyshop.auth.health;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of one background dependency probe.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ProbeResult {
+
+    public enum Status {
+        UP, DOWN, UNKNOWN, STALE
+    }
+
+    static final ProbeResult UNKNOWN = new ProbeResult(Status.UNKNOWN, 0, 0, "not probed yet");
+    static final ProbeResult STALE = new ProbeResult(Status.STALE, 0, 0, "probe result expired");
+
+    private final Status status;
+    private final long checkedAtNanos;
+    private final long latencyNanos;
+    private final String error;
+
+    static ProbeResult up(long checkedAtNanos, long latencyNanos) {
+        return new ProbeResult(Status.UP, checkedAtNanos, latencyNanos, null);
+    }
+
+    static ProbeResult down(long checkedAtNanos, String error) {
+        return new ProbeResult(Status.DOWN, checkedAtNanos, 0, error);
+    }
+
+    public boolean isUp() {
+        return status == Status.UP;
+    }
+
+    boolean isStale(long nowNanos, long maxAgeNanos) {
+        return status != Status.UNKNOWN && nowNanos - checkedAtNanos > maxAgeNanos;
+    }
+}
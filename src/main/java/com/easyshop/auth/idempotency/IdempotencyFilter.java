@@ -0,0 +1,400 @@
+package com.easyshop.auth.idempotency;
+
+import com.easyshop.auth.context.RequestDeadline;
+import com.easyshop.auth.exception.BusinessException;
+import com.easyshop.auth.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * {@code Idempotency-Key} support for the non-idempotent {@code /api/auth} POST endpoints.
+ * <p>
+ * The first request with a key claims it in Redis and its response, with the headers clients act on, is stored
+ * for the configured window; later requests with the same key and body get that response replayed (marked with
+ * {@code Idempotent-Replayed}) for the cost of one Redis GET. A duplicate arriving while the first is still
+ * running polls the record and replays the response once it is stored; only when {@code wait-timeout-ms} or the
+ * request deadline, whichever is sooner, runs out is it answered 409 with {@code Retry-After}. Server errors and
+ * 429s release the key, so a waiting duplicate or the next retry runs the request again.
+ * <p>
+ * Bodies are matched by an HMAC under {@code fingerprint-secret}, never a plain hash: register and reset-password
+ * bodies carry passwords and reset tokens, and the fingerprint sits in Redis for the whole window. Without a
+ * secret the filter stays off. Redis failures fail open: the request runs as if it carried no key.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "easyshop.auth.reactive.enabled", havingValue = "false", matchIfMissing = true)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    // Headers replayed with the stored response; Content-Type is stored separately
+    private static final List<String> REPLAYED_HEADERS =
+            List.of(HttpHeaders.RETRY_AFTER, HttpHeaders.LOCATION, HttpHeaders.CONTENT_LANGUAGE);
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long MAX_BODY_BYTES = 64 * 1024;
+    private static final long POLL_INTERVAL_MS = 50;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final IdempotencyStore store;
+    private final HandlerExceptionResolver exceptionResolver;
+    private final boolean enabled;
+    private final SecretKeySpec fingerprintKey;
+    private final Set<String> paths;
+    private final Duration ttl;
+    private final Duration lockTtl;
+    private final long waitTimeoutNanos;
+    private final String retryAfterSeconds;
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter awaited;
+    private final Counter inProgress;
+    private final Counter rejected;
+    private final Counter bypassed;
+
+    public IdempotencyFilter(IdempotencyStore store,
+                             @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+                             MeterRegistry meterRegistry,
+                             @Value("${easyshop.auth.idempotency.enabled:true}") boolean enabled,
+                             @Value("${easyshop.auth.idempotency.fingerprint-secret:}") String fingerprintSecret,
+                             @Value("${easyshop.auth.idempotency.paths}") String paths,
+                             @Value("${easyshop.auth.idempotency.ttl-seconds:3600}") long ttlSeconds,
+                             @Value("${easyshop.auth.idempotency.lock-seconds:30}") long lockSeconds,
+                             @Value("${easyshop.auth.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs,
+                             @Value("${easyshop.auth.idempotency.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.store = store;
+        this.exceptionResolver = exceptionResolver;
+        boolean hasSecret = fingerprintSecret != null && !fingerprintSecret.isBlank();
+        if (enabled && !hasSecret) {
+            log.warn("Idempotency-Key support is disabled: easyshop.auth.idempotency.fingerprint-secret is not set.");
+        }
+        this.enabled = enabled && hasSecret;
+        this.fingerprintKey = hasSecret
+                ? new SecretKeySpec(fingerprintSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM)
+                : null;
+        this.paths = Stream.of(paths.split(","))
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.ttl = Duration.ofSeconds(Math.max(ttlSeconds, 1));
+        this.lockTtl = Duration.ofSeconds(Math.max(lockSeconds, 1));
+        this.waitTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(waitTimeoutMs, 0));
+        this.retryAfterSeconds = Integer.toString(Math.max(retryAfterSeconds, 1));
+
+        this.executed = outcomeCounter(meterRegistry, "executed");
+        this.replayed = outcomeCounter(meterRegistry, "replayed");
+        this.awaited = outcomeCounter(meterRegistry, "awaited");
+        this.inProgress = outcomeCounter(meterRegistry, "in-progress");
+        this.rejected = outcomeCounter(meterRegistry, "rejected");
+        this.bypassed = outcomeCounter(meterRegistry, "bypassed");
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.idempotency.requests")
+                .description("Requests carrying an Idempotency-Key, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled
+                || !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || !paths.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (!isValidKey(idempotencyKey)) {
+            reject(request, response, ErrorCode.IDEMPOTENCY_KEY_INVALID);
+            return;
+        }
+        long contentLength = request.getContentLengthLong();
+        if (contentLength < 0 || contentLength > MAX_BODY_BYTES) {
+            // Auth payloads are small; anything else is not worth buffering
+            bypassed.increment();
+            chain.doFilter(request, response);
+            return;
+        }
+
+        CachedBodyRequest cached = new CachedBodyRequest(request, request.getInputStream().readAllBytes());
+        String key = IdempotencyStore.key(request.getRequestURI(), idempotencyKey);
+        String fingerprint = fingerprint(cached.body);
+        try {
+            handle(key, fingerprint, cached, response, chain);
+        } catch (DataAccessException ex) {
+            log.warn("Idempotency store unavailable, executing {} without replay protection.",
+                    request.getRequestURI(), ex);
+            bypassed.increment();
+            if (!response.isCommitted()) {
+                chain.doFilter(cached, response);
+            }
+        }
+    }
+
+    private void handle(String key,
+                        String fingerprint,
+                        CachedBodyRequest request,
+                        HttpServletResponse response,
+                        FilterChain chain) throws ServletException, IOException {
+        long waitUntil = System.nanoTime() + Math.max(Math.min(waitTimeoutNanos, RequestDeadline.remainingNanos()), 0);
+        boolean waiting = false;
+        while (true) {
+            Optional<IdempotencyRecord> existing = store.find(key);
+            if (existing.isPresent()) {
+                IdempotencyRecord record = existing.get();
+                if (!MessageDigest.isEqual(fingerprint.getBytes(StandardCharsets.US_ASCII),
+                        record.fingerprint().getBytes(StandardCharsets.US_ASCII))) {
+                    reject(request, response, ErrorCode.IDEMPOTENCY_KEY_REUSED);
+                    return;
+                }
+                if (record.isComplete()) {
+                    replay(record, response);
+                    return;
+                }
+            } else {
+                String claim = store.tryStart(key, fingerprint, lockTtl);
+                if (claim != null) {
+                    execute(key, claim, fingerprint, request, response, chain);
+                    return;
+                }
+            }
+            // Another request holds the key: wait for its response, or for a release that lets this one run
+            if (!waiting) {
+                awaited.increment();
+                waiting = true;
+            }
+            if (!pauseUntil(waitUntil)) {
+                inProgress(request, response);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs the request and stores its response, or releases the key when the outcome is retryable.
+     */
+    private void execute(String key,
+                         String claim,
+                         String fingerprint,
+                         CachedBodyRequest request,
+                         HttpServletResponse response,
+                         FilterChain chain) throws ServletException, IOException {
+        executed.increment();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(request, wrapper);
+            int status = wrapper.getStatus();
+            if (isStorable(status)) {
+                stored = store(key, claim, IdempotencyRecord.completed(fingerprint, status, wrapper.getContentType(),
+                        replayedHeaders(wrapper), new String(wrapper.getContentAsByteArray(), StandardCharsets.UTF_8)));
+            }
+        } finally {
+            if (!stored) {
+                releaseQuietly(key, claim);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private boolean store(String key, String claim, IdempotencyRecord record) {
+        try {
+            if (store.complete(key, claim, record, ttl)) {
+                return true;
+            }
+            log.warn("Idempotency claim expired after lock-seconds before the response was stored.");
+            return false;
+        } catch (DataAccessException ex) {
+            log.warn("Failed to store idempotent response.", ex);
+            return false;
+        }
+    }
+
+    private void replay(IdempotencyRecord record, HttpServletResponse response) throws IOException {
+        replayed.increment();
+        byte[] body = record.body() != null ? record.body().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        response.setStatus(record.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (record.headers() != null) {
+            record.headers().forEach(response::setHeader);
+        }
+        if (record.contentType() != null) {
+            response.setContentType(record.contentType());
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Sleeps until the next poll; {@code false} once the wait is used up or the thread is interrupted.
+     */
+    private static boolean pauseUntil(long waitUntil) {
+        long remainingNanos = waitUntil - System.nanoTime();
+        if (remainingNanos <= 0) {
+            return false;
+        }
+        try {
+            Thread.sleep(Math.max(Math.min(POLL_INTERVAL_MS, TimeUnit.NANOSECONDS.toMillis(remainingNanos)), 1));
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void inProgress(HttpServletRequest request, HttpServletResponse response) {
+        inProgress.increment();
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        exceptionResolver.resolveException(request, response, null,
+                BusinessException.of(ErrorCode.IDEMPOTENCY_REQUEST_IN_PROGRESS));
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, ErrorCode errorCode) {
+        rejected.increment();
+        exceptionResolver.resolveException(request, response, null, BusinessException.of(errorCode));
+    }
+
+    private void releaseQuietly(String key, String claim) {
+        try {
+            store.release(key, claim);
+        } catch (DataAccessException ex) {
+            // The lock expires on its own after lock-seconds
+            log.debug("Failed to release idempotency key.", ex);
+        }
+    }
+
+    private static Map<String, String> replayedHeaders(HttpServletResponse response) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : REPLAYED_HEADERS) {
+            String value = response.getHeader(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        return headers.isEmpty() ? null : headers;
+    }
+
+    private static boolean isStorable(int status) {
+        return status >= 200 && status < 500 && status != HttpServletResponse.SC_TOO_MANY_REQUESTS;
+    }
+
+    private static boolean isValidKey(String key) {
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < 0x21 || c > 0x7e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String fingerprint(byte[] body) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(fingerprintKey);
+            return HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC-SHA256 not available", ex);
+        }
+    }
+
+    /**
+     * Request whose body was read up front for fingerprinting and can be read again by the handler.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Body is already buffered");
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.easyshop.auth.idempotency;
+
+import java.util.Map;
+
+/**
+ * What is stored in Redis under an idempotency key: a pending marker while the first request runs, then its
+ * response.
+ *
+ * @param fingerprint HMAC of the request body, to reject a key reused for a different request
+ * @param status      HTTP status of the first response; {@code null} while it is still running
+ * @param headers     response headers replayed with the body, such as {@code Retry-After}; {@code null} when none
+ * @param claim       random token of the request holding a pending key; {@code null} once complete
+ */
+record IdempotencyRecord(String fingerprint, Integer status, String contentType, Map<String, String> headers,
+                         String body, String claim) {
+
+    static IdempotencyRecord pending(String fingerprint, String claim) {
+        return new IdempotencyRecord(fingerprint, null, null, null, null, claim);
+    }
+
+    static IdempotencyRecord completed(String fingerprint, int status, String contentType,
+                                       Map<String, String> headers, String body) {
+        return new IdempotencyRecord(fingerprint, status, contentType, headers, body, null);
+    }
+
+    boolean isComplete() {
+        return status != null;
+    }
+}
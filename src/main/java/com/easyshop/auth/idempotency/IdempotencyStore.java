@@ -0,0 +1,101 @@
+package com.easyshop.auth.idempotency;
+
+import com.easyshop.auth.tracing.AuthTracer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Idempotency records in Redis, keyed by endpoint and client key.
+ * <p>
+ * Every claim carries its own token, and completing or releasing it only succeeds while the key still holds that
+ * exact claim: a handler that outlives {@code lock-seconds} cannot overwrite or delete the claim of the request
+ * that took the key over.
+ */
+@Component
+class IdempotencyStore {
+
+    private static final RedisScript<Long> COMPLETE = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+                return 1
+            end
+            return 0""", Long.class);
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0""", Long.class);
+
+    private final RedisTemplate<String, String> redis;
+    private final ObjectMapper objectMapper;
+    private final AuthTracer tracer;
+
+    IdempotencyStore(RedisTemplate<String, String> redis, ObjectMapper objectMapper, AuthTracer tracer) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.tracer = tracer;
+    }
+
+    static String key(String path, String idempotencyKey) {
+        return "idempotency:%s:%s".formatted(path, idempotencyKey);
+    }
+
+    Optional<IdempotencyRecord> find(String key) {
+        String raw = tracer.redis("GET", "idempotency", () -> redis.opsForValue().get(key));
+        if (raw == null || raw.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(raw, IdempotencyRecord.class));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to deserialize idempotency record", ex);
+        }
+    }
+
+    /**
+     * Claims the key for the caller.
+     *
+     * @return the claim to pass to {@link #complete} or {@link #release}; {@code null} when another request
+     * already holds the key
+     */
+    String tryStart(String key, String fingerprint, Duration lockTtl) {
+        String claim = write(IdempotencyRecord.pending(fingerprint, UUID.randomUUID().toString()));
+        boolean claimed = Boolean.TRUE.equals(tracer.redis("SET", "idempotency",
+                () -> redis.opsForValue().setIfAbsent(key, claim, lockTtl)));
+        return claimed ? claim : null;
+    }
+
+    /**
+     * Replaces the claim with the response; {@code false} when the claim expired and the key moved on.
+     */
+    boolean complete(String key, String claim, IdempotencyRecord record, Duration ttl) {
+        String json = write(record);
+        Long replaced = tracer.redis("EVALSHA", "idempotency", () -> redis.execute(COMPLETE, List.of(key),
+                claim, json, Long.toString(ttl.toMillis())));
+        return replaced != null && replaced == 1;
+    }
+
+    /**
+     * Deletes the key if it still holds the caller's claim.
+     */
+    void release(String key, String claim) {
+        tracer.redis("EVALSHA", "idempotency", () -> redis.execute(RELEASE, List.of(key), claim));
+    }
+
+    private String write(IdempotencyRecord record) {
+        try {
+            return objectMapper.writeValueAsString(record);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize idempotency record", ex);
+        }
+    }
+}
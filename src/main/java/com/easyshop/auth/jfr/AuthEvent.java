@@ -0,0 +1,32 @@
+package com.easyshop.auth.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the service's Flight Recorder events.
+ * <p>
+ * Events are created on every call but only timed and committed when the event type is enabled in the
+ * running recording (see {@code src/main/jfr/easyshop-auth.jfc}). With recording off {@link #isEnabled()}
+ * returns false, phase timing is skipped and {@code commit()} is a no-op. Fields never carry emails, codes
+ * or tokens.
+ */
+@Category({"EasyShop", "Auth"})
+@StackTrace(false)
+public abstract class AuthEvent extends Event {
+
+    /**
+     * Elapsed nanoseconds since {@code startNanos}, or 0 when this event type is not being recorded.
+     */
+    protected final long elapsedSince(long startNanos) {
+        return startNanos == 0 ? 0 : System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Start timestamp for a nested phase, or 0 when this event type is not being recorded.
+     */
+    public final long startPhase() {
+        return isEnabled() ? System.nanoTime() : 0;
+    }
+}
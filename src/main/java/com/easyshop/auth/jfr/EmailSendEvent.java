@@ -0,0 +1,32 @@
+package com.easyshop.auth.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("com.easyshop.auth.EmailSend")
+@Label("Email Send")
+public class EmailSendEvent extends AuthEvent {
+
+    @Label("Template")
+    public String template;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Render Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long renderTime;
+
+    @Label("SMTP Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long smtpTime;
+
+    public void addRenderTime(long startNanos) {
+        renderTime += elapsedSince(startNanos);
+    }
+
+    public void addSmtpTime(long startNanos) {
+        smtpTime += elapsedSince(startNanos);
+    }
+}
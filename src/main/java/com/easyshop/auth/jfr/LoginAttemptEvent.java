@@ -0,0 +1,28 @@
+package com.easyshop.auth.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("com.easyshop.auth.LoginAttempt")
+@Label("Login Attempt")
+@Description("Username/password authentication through the DAO provider")
+public class LoginAttemptEvent extends AuthEvent {
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("Outcome")
+    @Description("success, or the simple name of the AuthenticationException")
+    public String outcome;
+
+    @Label("Hash Time")
+    @Description("Time spent in PasswordEncoder.matches")
+    @Timespan(Timespan.NANOSECONDS)
+    public long hashTime;
+
+    public void addHashTime(long startNanos) {
+        hashTime += elapsedSince(startNanos);
+    }
+}
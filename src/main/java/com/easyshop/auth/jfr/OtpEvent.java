@@ -0,0 +1,21 @@
+package com.easyshop.auth.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Timespan;
+
+/**
+ * Fields shared by the OTP send and verify events.
+ */
+public abstract class OtpEvent extends AuthEvent {
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Redis Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long redisTime;
+
+    public void addRedisTime(long startNanos) {
+        redisTime += elapsedSince(startNanos);
+    }
+}
@@ -0,0 +1,23 @@
+package com.easyshop.auth.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Generation or resend of a verification code. Outcome is generated, resent, ignored, cooldown or error.
+ */
+@Name("com.easyshop.auth.OtpSend")
+@Label("OTP Send")
+public class OtpSendEvent extends OtpEvent {
+
+    @Label("Email Time")
+    @Description("Rendering and SMTP delivery")
+    @Timespan(Timespan.NANOSECONDS)
+    public long emailTime;
+
+    public void addEmailTime(long startNanos) {
+        emailTime += elapsedSince(startNanos);
+    }
+}
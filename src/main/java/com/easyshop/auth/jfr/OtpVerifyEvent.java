@@ -0,0 +1,17 @@
+package com.easyshop.auth.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Verification of a submitted code. Outcome is success or the lower-case {@code ErrorCode}.
+ */
+@Name("com.easyshop.auth.OtpVerify")
+@Label("OTP Verify")
+public class OtpVerifyEvent extends OtpEvent {
+
+    @Label("Activation")
+    @Description("Registration flow (true) or password reset flow (false)")
+    public boolean activation;
+}
@@ -0,0 +1,27 @@
+package com.easyshop.auth.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("com.easyshop.auth.RateLimitDecision")
+@Label("Rate Limit Decision")
+public class RateLimitDecisionEvent extends AuthEvent {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Requests In Window")
+    public long requests;
+
+    @Label("Redis Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long redisTime;
+
+    public void addRedisTime(long startNanos) {
+        redisTime += elapsedSince(startNanos);
+    }
+}
@@ -0,0 +1,64 @@
+package com.easyshop.auth.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Started by the token customizer and committed by the JWT encoder once the token is signed, so the event
+ * spans claim customization and signing.
+ */
+@Name("com.easyshop.auth.TokenIssued")
+@Label("Token Issued")
+public class TokenIssuedEvent extends AuthEvent {
+
+    private static final ThreadLocal<TokenIssuedEvent> PENDING = new ThreadLocal<>();
+
+    @Label("Grant Type")
+    public String grantType;
+
+    @Label("Client ID")
+    public String clientId;
+
+    @Label("Token Type")
+    public String tokenType;
+
+    @Label("Sign Time")
+    @Description("Time spent in JwtEncoder.encode")
+    @Timespan(Timespan.NANOSECONDS)
+    public long signTime;
+
+    /**
+     * Hands the event to the encoder call that follows on the same thread.
+     */
+    public void awaitSigning() {
+        PENDING.set(this);
+    }
+
+    /**
+     * Takes the event prepared by the customizer for this thread, or a fresh one for tokens issued without it.
+     */
+    public static TokenIssuedEvent forSigning() {
+        TokenIssuedEvent event = PENDING.get();
+        if (event == null) {
+            event = new TokenIssuedEvent();
+            event.begin();
+        } else {
+            PENDING.remove();
+        }
+        return event;
+    }
+
+    /**
+     * Drops an event the customizer prepared but no encoder call consumed, for example because token generation
+     * failed in between, so it is neither kept on a pooled thread nor attributed to the next token.
+     */
+    public static void discardPending() {
+        PENDING.remove();
+    }
+
+    public void addSignTime(long startNanos) {
+        signTime += elapsedSince(startNanos);
+    }
+}
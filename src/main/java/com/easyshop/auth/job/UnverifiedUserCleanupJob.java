@@ -1,5 +1,6 @@
 package com.easyshop.auth.job;
 
+import com.easyshop.auth.cache.UserDetailsCache;
 import com.easyshop.auth.repository.OtpStateRepository;
 import com.easyshop.auth.repository.UserRepository;
 import java.time.LocalDateTime;
@@ -16,14 +17,17 @@ public class UnverifiedUserCleanupJob {
 
     private final UserRepository userRepository;
     private final OtpStateRepository otpStateRepository;
+    private final UserDetailsCache userDetailsCache;
     private final long retentionHours;
 
     // TODO move unverified-retention-hours to config file
     public UnverifiedUserCleanupJob(UserRepository userRepository,
                                     OtpStateRepository otpStateRepository,
+                                    UserDetailsCache userDetailsCache,
                                     @Value("${easyshop.auth.unverified-retention-hours:24}") long retentionHours) {
         this.userRepository = userRepository;
         this.otpStateRepository = otpStateRepository;
+        this.userDetailsCache = userDetailsCache;
         this.retentionHours = retentionHours > 0 ? retentionHours : 24L;
     }
 
@@ -39,6 +43,7 @@ public class UnverifiedUserCleanupJob {
         int removed = userRepository.deleteUnverifiedOlderThan(cutoff);
 
         for (String email : emails) {
+            userDetailsCache.invalidate(email);
             try {
                 otpStateRepository.delete(email);
             } catch (Exception ignored) {
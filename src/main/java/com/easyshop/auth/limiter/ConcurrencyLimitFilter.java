@@ -0,0 +1,174 @@
+package com.easyshop.auth.limiter;
+
+import com.easyshop.auth.context.RequestDeadline;
+import com.easyshop.auth.exception.BusinessException;
+import com.easyshop.auth.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Admits requests into their {@link RequestLane}: each lane has its own adaptive concurrency limit, capped at the
+ * lane's {@code max-limit}, and a bounded queue. Once both are full the request is shed with 503 and
+ * {@code Retry-After}. Admitted requests run with the lane bound to the thread so BCrypt uses the lane's pool.
+ * <p>
+ * Runs before Spring Security so a shed request never reaches session, CSRF or BCrypt work. The default caps
+ * keep the login and API lanes, including their queues, well below the Tomcat thread pool so token issuance
+ * always finds a thread.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final HandlerExceptionResolver exceptionResolver;
+    private final boolean enabled;
+    private final long queueTimeoutNanos;
+    private final String retryAfterSeconds;
+
+    private final Map<RequestLane, GradientConcurrencyLimit> limits = new EnumMap<>(RequestLane.class);
+    private final Map<RequestLane, Counter> shed = new EnumMap<>(RequestLane.class);
+
+    public ConcurrencyLimitFilter(@Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+                                  MeterRegistry meterRegistry,
+                                  Environment environment,
+                                  @Value("${easyshop.auth.concurrency-limit.enabled:true}") boolean enabled,
+                                  @Value("${easyshop.auth.concurrency-limit.initial-limit:20}") int initialLimit,
+                                  @Value("${easyshop.auth.concurrency-limit.min-limit:4}") int minLimit,
+                                  @Value("${easyshop.auth.concurrency-limit.queue-timeout-ms:200}") long queueTimeoutMs,
+                                  @Value("${easyshop.auth.concurrency-limit.window-ms:1000}") long windowMs,
+                                  @Value("${easyshop.auth.concurrency-limit.smoothing:0.2}") double smoothing,
+                                  @Value("${easyshop.auth.concurrency-limit.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.exceptionResolver = exceptionResolver;
+        this.enabled = enabled;
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(queueTimeoutMs, 0));
+        this.retryAfterSeconds = Integer.toString(Math.max(retryAfterSeconds, 1));
+
+        for (RequestLane lane : RequestLane.values()) {
+            LaneSettings settings = LaneSettings.of(environment, lane);
+            GradientConcurrencyLimit limit = new GradientConcurrencyLimit(
+                    initialLimit, minLimit, settings.maxLimit(), settings.queueCapacity(), smoothing, windowMs);
+            limits.put(lane, limit);
+            Gauge.builder("auth.concurrency.limit", limit, GradientConcurrencyLimit::getLimit)
+                    .tag("lane", lane.tag)
+                    .register(meterRegistry);
+            Gauge.builder("auth.concurrency.in.flight", limit, GradientConcurrencyLimit::getInFlight)
+                    .tag("lane", lane.tag)
+                    .register(meterRegistry);
+            Gauge.builder("auth.concurrency.queued", limit, GradientConcurrencyLimit::getQueued)
+                    .tag("lane", lane.tag)
+                    .register(meterRegistry);
+            shed.put(lane, Counter.builder("auth.concurrency.shed")
+                    .description("Requests rejected with 503 because the concurrency limit and queue were full")
+                    .tag("lane", lane.tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || RequestLane.classify(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        RequestLane lane = RequestLane.classify(request);
+        GradientConcurrencyLimit limit = limits.get(lane);
+        boolean acquired;
+        try {
+            // Never queue past the request deadline
+            acquired = limit.tryAcquire(Math.min(queueTimeoutNanos, RequestDeadline.remainingNanos()));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            shed.get(lane).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            exceptionResolver.resolveException(request, response, null,
+                    BusinessException.of(ErrorCode.SERVICE_OVERLOADED));
+            return;
+        }
+
+        Permit permit = new Permit(limit, System.nanoTime());
+        RequestLane previous = RequestLane.enter(lane);
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Reactive handlers finish after this thread returns; hold the permit until they do
+                request.getAsyncContext().addListener(permit);
+                async = true;
+            }
+        } finally {
+            RequestLane.exit(previous);
+            if (!async) {
+                permit.release();
+            }
+        }
+    }
+
+    /**
+     * Permit held by one request, released exactly once when it completes.
+     */
+    private static final class Permit implements AsyncListener {
+
+        private final GradientConcurrencyLimit limit;
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(GradientConcurrencyLimit limit, long startNanos) {
+            this.limit = limit;
+            this.startNanos = startNanos;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                limit.release(System.nanoTime() - startNanos);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Listeners are dropped when the request is dispatched asynchronously again
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
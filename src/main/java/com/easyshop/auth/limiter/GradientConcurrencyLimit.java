@@ -0,0 +1,142 @@
+package com.easyshop.auth.limiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to latency, with a bounded queue in front of it.
+ * <p>
+ * Latency samples are averaged per window. The window average is compared to a slowly moving long-term average:
+ * while they match, the limit grows by roughly its square root per window; when the window is slower, the limit
+ * shrinks in proportion (by at most half per window). The limit only grows while requests actually use more
+ * than half of it, so an idle pod does not drift to the maximum.
+ */
+public class GradientConcurrencyLimit {
+
+    private static final double LONG_RTT_WEIGHT = 0.05;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueCapacity;
+    private final double smoothing;
+    private final long windowNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+
+    // Written under the lock, volatile for the gauges
+    private volatile double limit;
+    private volatile int inFlight;
+    private volatile int queued;
+
+    private double longRttNanos = Double.NaN;
+    private long windowStart = System.nanoTime();
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                                    int queueCapacity, double smoothing, long windowMillis) {
+        this.minLimit = Math.max(minLimit, 1);
+        this.maxLimit = Math.max(maxLimit, this.minLimit);
+        this.queueCapacity = Math.max(queueCapacity, 0);
+        this.smoothing = Math.min(Math.max(smoothing, 0.01), 1.0);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(windowMillis, 1));
+        this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+    }
+
+    /**
+     * Takes a permit, waiting in the queue for up to {@code timeoutNanos} while the limit is reached.
+     * Returns {@code false} when the queue is full or the wait times out.
+     */
+    public boolean tryAcquire(long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                take();
+                return true;
+            }
+            if (queued >= queueCapacity || timeoutNanos <= 0) {
+                return false;
+            }
+            queued++;
+            try {
+                long remaining = timeoutNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    remaining = permitReleased.awaitNanos(remaining);
+                }
+                take();
+                return true;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a permit and records how long the request held it.
+     */
+    public void release(long rttNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            sample(rttNanos);
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    private void take() {
+        inFlight++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+    }
+
+    private void sample(long rttNanos) {
+        windowRttSum += Math.max(rttNanos, 1);
+        windowSamples++;
+        long now = System.nanoTime();
+        if (now - windowStart < windowNanos || windowSamples < MIN_WINDOW_SAMPLES) {
+            return;
+        }
+        double shortRtt = (double) windowRttSum / windowSamples;
+        boolean appLimited = windowMaxInFlight < limit / 2;
+        windowStart = now;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = inFlight;
+
+        if (Double.isNaN(longRttNanos)) {
+            longRttNanos = shortRtt;
+        } else {
+            longRttNanos += (shortRtt - longRttNanos) * LONG_RTT_WEIGHT;
+        }
+        double gradient = Math.min(Math.max(longRttNanos / shortRtt, MIN_GRADIENT), 1.0);
+        if (gradient >= 1.0 && appLimited) {
+            return;
+        }
+        double target = limit * gradient + Math.sqrt(limit);
+        double next = limit * (1 - smoothing) + target * smoothing;
+        limit = Math.min(Math.max(next, minLimit), maxLimit);
+    }
+}
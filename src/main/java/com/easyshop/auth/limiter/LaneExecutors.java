@@ -0,0 +1,94 @@
+package com.easyshop.auth.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.core.env.Environment;
+
+/**
+ * Bounded platform-thread pools, one per {@link RequestLane}, for CPU-heavy work such as BCrypt.
+ * <p>
+ * The request thread hands the work to its lane's pool and waits, so a lane can never use more cores than it
+ * has threads. Work outside a classified request (warmup, client registration at startup, reactive handlers
+ * already on their own bounded scheduler) runs inline.
+ */
+public class LaneExecutors {
+
+    private final Map<RequestLane, ThreadPoolExecutor> executors = new EnumMap<>(RequestLane.class);
+    private final Map<RequestLane, Timer> queueWait = new EnumMap<>(RequestLane.class);
+    private final Map<RequestLane, Counter> overflow = new EnumMap<>(RequestLane.class);
+
+    public LaneExecutors(Environment environment, MeterRegistry meterRegistry) {
+        for (RequestLane lane : RequestLane.values()) {
+            LaneSettings settings = LaneSettings.of(environment, lane);
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    settings.hashThreads(), settings.hashThreads(), 0, TimeUnit.MILLISECONDS,
+                    // Every request the lane admits can queue here; the concurrency limit bounds the rest
+                    new LinkedBlockingQueue<>(settings.maxLimit() + settings.queueCapacity()),
+                    Thread.ofPlatform().name("lane-" + lane.tag + "-", 0).daemon(true).factory());
+            executors.put(lane, executor);
+            Tags tags = Tags.of("lane", lane.tag);
+            ExecutorServiceMetrics.monitor(meterRegistry, executor, "auth.lane.executor", tags);
+            queueWait.put(lane, Timer.builder("auth.lane.queue.wait")
+                    .description("Time CPU-heavy work waited for a lane thread")
+                    .tags(tags)
+                    .register(meterRegistry));
+            overflow.put(lane, Counter.builder("auth.lane.overflow")
+                    .description("Work run on the request thread because the lane queue was full")
+                    .tags(tags)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Runs the task on the pool of the current request's lane and waits for its result.
+     */
+    public <T> T call(Supplier<T> task) {
+        RequestLane lane = RequestLane.current();
+        if (lane == null) {
+            return task.get();
+        }
+        long submitted = System.nanoTime();
+        Timer wait = queueWait.get(lane);
+        Future<T> future;
+        try {
+            future = executors.get(lane).submit(() -> {
+                wait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return task.get();
+            });
+        } catch (RejectedExecutionException ex) {
+            overflow.get(lane).increment();
+            return task.get();
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the " + lane.tag + " lane", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolExecutor::shutdown);
+    }
+}
@@ -0,0 +1,22 @@
+package com.easyshop.auth.limiter;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-lane bounds from {@code easyshop.auth.lanes.<lane>.*}.
+ *
+ * @param maxLimit      ceiling for the lane's adaptive concurrency limit
+ * @param queueCapacity requests that may wait for a permit; they hold a Tomcat thread while waiting
+ * @param hashThreads   platform threads running BCrypt for the lane
+ */
+record LaneSettings(int maxLimit, int queueCapacity, int hashThreads) {
+
+    static LaneSettings of(Environment environment, RequestLane lane) {
+        String prefix = "easyshop.auth.lanes." + lane.tag + ".";
+        int hashThreads = environment.getProperty(prefix + "hash-threads", Integer.class, 0);
+        return new LaneSettings(
+                Math.max(environment.getRequiredProperty(prefix + "max-limit", Integer.class), 1),
+                Math.max(environment.getRequiredProperty(prefix + "queue-capacity", Integer.class), 0),
+                hashThreads > 0 ? hashThreads : lane.defaultHashThreads());
+    }
+}
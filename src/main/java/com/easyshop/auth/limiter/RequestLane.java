@@ -0,0 +1,78 @@
+package com.easyshop.auth.limiter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Locale;
+
+/**
+ * Isolated execution lanes, in priority order. Each lane has its own concurrency limit, queue and BCrypt pool,
+ * so a credential-stuffing wave on {@code /login} cannot starve token issuance for the internal services.
+ * <p>
+ * The concurrency limit filter binds the lane to the request thread; code that hands off CPU-heavy work reads it
+ * through {@link #current()}.
+ */
+public enum RequestLane {
+
+    /** Service-to-service traffic: token, JWKS, introspection and discovery endpoints. */
+    SERVICE(1),
+    /** Interactive form login. */
+    LOGIN(2),
+    /** Registration, OTP and password reset under {@code /api/auth}. */
+    API(4);
+
+    private static final ThreadLocal<RequestLane> CURRENT = new ThreadLocal<>();
+
+    final String tag = name().toLowerCase(Locale.ROOT);
+
+    // Default BCrypt threads are the available processors divided by this
+    private final int cpuDivisor;
+
+    RequestLane(int cpuDivisor) {
+        this.cpuDivisor = cpuDivisor;
+    }
+
+    /**
+     * Lane of the request being handled on this thread, or {@code null} outside a classified request.
+     */
+    public static RequestLane current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Lane of the request, or {@code null} when it is not isolated.
+     */
+    static RequestLane classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (path.startsWith("/api/auth/")) {
+            return API;
+        }
+        if (path.startsWith("/oauth2/") && !path.equals("/oauth2/authorize")
+                || path.startsWith("/.well-known/")) {
+            return SERVICE;
+        }
+        if (path.equals("/login") && "POST".equals(request.getMethod())) {
+            return LOGIN;
+        }
+        return null;
+    }
+
+    /**
+     * Binds the lane to this thread; returns the previous binding for {@link #exit(RequestLane)}.
+     */
+    static RequestLane enter(RequestLane lane) {
+        RequestLane previous = CURRENT.get();
+        CURRENT.set(lane);
+        return previous;
+    }
+
+    static void exit(RequestLane previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    int defaultHashThreads() {
+        return Math.max(Runtime.getRuntime().availableProcessors() / cpuDivisor, 1);
+    }
+}
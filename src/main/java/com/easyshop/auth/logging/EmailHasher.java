@@ -0,0 +1,73 @@
+package com.easyshop.auth.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replaces emails in log lines with a short salted SHA-256 prefix, so lines about the same account can be
+ * correlated without writing the address. The salted digest state is computed once and cloned per call; log
+ * statements pass {@link #hashed(String)} rather than the hash itself.
+ * <p>
+ * Set {@code easyshop.logging.email-hash-salt} to the same secret on every pod; without it a random salt is
+ * used and hashes only match within one process.
+ */
+@Slf4j
+@Component
+public class EmailHasher {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final MessageDigest salted;
+
+    public EmailHasher(@Value("${easyshop.logging.email-hash-salt:}") String salt) {
+        byte[] saltBytes;
+        if (salt == null || salt.isBlank()) {
+            saltBytes = new byte[16];
+            new SecureRandom().nextBytes(saltBytes);
+            log.info("No email hash salt configured; email hashes in logs are only stable within this instance.");
+        } else {
+            saltBytes = salt.getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            this.salted = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        this.salted.update(saltBytes);
+    }
+
+    /**
+     * Log argument for the email that is hashed only when the line is rendered, so lines dropped by the level
+     * or the sampling filter cost nothing.
+     */
+    public Object hashed(String email) {
+        return new Object() {
+            @Override
+            public String toString() {
+                return hash(email);
+            }
+        };
+    }
+
+    /**
+     * First 8 bytes of SHA-256(salt || email) as hex.
+     */
+    public String hash(String email) {
+        if (email == null) {
+            return "-";
+        }
+        try {
+            MessageDigest digest = (MessageDigest) salted.clone();
+            byte[] hash = digest.digest(email.getBytes(StandardCharsets.UTF_8));
+            return HEX.formatHex(hash, 0, 8);
+        } catch (CloneNotSupportedException ex) {
+            throw new IllegalStateException("SHA-256 digest is not cloneable", ex);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.easyshop.auth.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Marker;
+
+/**
+ * Drops a share of the log lines tagged with a {@link LogEvents} marker before any message formatting
+ * happens. Rates come from {@code <rates>}, e.g. {@code otp.generated=0.1,otp.verified=0.25}; a rate of 1
+ * keeps every line, 0 drops them all. WARN and ERROR lines are always kept.
+ */
+public class EventSamplingTurboFilter extends TurboFilter {
+
+    private String rates = "";
+    private volatile Map<String, Double> sampling = Map.of();
+
+    public void setRates(String rates) {
+        this.rates = rates != null ? rates : "";
+    }
+
+    @Override
+    public void start() {
+        try {
+            sampling = parse(rates);
+            super.start();
+        } catch (IllegalArgumentException ex) {
+            addError("Invalid sampling rates '" + rates + "'", ex);
+        }
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (marker == null || level == null || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        Double rate = sampling.get(marker.getName());
+        if (rate == null || rate >= 1.0) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private static Map<String, Double> parse(String raw) {
+        return Stream.of(raw.split(","))
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .map(entry -> entry.split("=", 2))
+                .collect(Collectors.toUnmodifiableMap(
+                        pair -> pair[0].trim(),
+                        pair -> {
+                            if (pair.length != 2) {
+                                throw new IllegalArgumentException("Expected event=rate, got " + pair[0]);
+                            }
+                            return Math.min(Math.max(Double.parseDouble(pair[1].trim()), 0.0), 1.0);
+                        }));
+    }
+}
@@ -0,0 +1,22 @@
+package com.easyshop.auth.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Markers for high-volume success log lines. {@link EventSamplingTurboFilter} keeps only a configured share of
+ * each ({@code easyshop.logging.sampling}); lines without a marker are never sampled.
+ */
+public final class LogEvents {
+
+    public static final Marker REGISTRATION_STARTED = MarkerFactory.getMarker("registration.started");
+    public static final Marker REGISTRATION_RESUMED = MarkerFactory.getMarker("registration.resumed");
+    public static final Marker PASSWORD_RESET = MarkerFactory.getMarker("password.reset");
+    public static final Marker OTP_GENERATED = MarkerFactory.getMarker("otp.generated");
+    public static final Marker OTP_RESENT = MarkerFactory.getMarker("otp.resent");
+    public static final Marker OTP_VERIFIED = MarkerFactory.getMarker("otp.verified");
+    public static final Marker USER_ACTIVATED = MarkerFactory.getMarker("user.activated");
+
+    private LogEvents() {
+    }
+}
@@ -1,5 +1,6 @@
 package com.easyshop.auth.model.dto;
 
+import com.easyshop.auth.web.NormalizedEmail;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
@@ -13,5 +14,6 @@ public class OtpSendDto {
 
     @Email
     @NotBlank
+    @NormalizedEmail
     private String email;
 }
@@ -1,5 +1,6 @@
 package com.easyshop.auth.model.dto;
 
+import com.easyshop.auth.web.NormalizedEmail;
 import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -17,6 +18,7 @@ public class PasswordResetDto {
 
     @Email
     @NotBlank
+    @NormalizedEmail
     private String email;
 
     @NotBlank
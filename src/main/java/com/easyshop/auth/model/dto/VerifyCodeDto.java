@@ -1,5 +1,6 @@
 package com.easyshop.auth.model.dto;
 
+import com.easyshop.auth.web.NormalizedEmail;
 import io.micrometer.common.lang.Nullable;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -14,6 +15,7 @@ public class VerifyCodeDto {
 
     @Email
     @NotBlank
+    @NormalizedEmail
     private String email;
 
     @NotBlank
@@ -26,7 +26,8 @@ public class User implements UserDetails {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    // Generated by the database from email; kept on the entity for UserDetails
+    @Column(insertable = false, updatable = false)
     private String username;
 
     @Column(unique = true, nullable = false)
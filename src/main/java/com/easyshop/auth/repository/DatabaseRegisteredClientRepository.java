@@ -3,6 +3,8 @@ package com.easyshop.auth.repository;
 import com.easyshop.auth.model.entity.OAuth2Client;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
 import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
@@ -12,6 +14,7 @@ import org.springframework.security.oauth2.server.authorization.settings.ClientS
 import org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat;
 import org.springframework.security.oauth2.server.authorization.settings.TokenSettings;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.util.HashMap;
@@ -35,10 +38,16 @@ public class DatabaseRegisteredClientRepository implements RegisteredClientRepos
 
     private final OAuth2ClientRepository clientRepository;
     private final ObjectMapper objectMapper;
+    private final Timer findByIdTimer;
+    private final Timer findByClientIdTimer;
 
-    public DatabaseRegisteredClientRepository(OAuth2ClientRepository clientRepository, ObjectMapper objectMapper) {
+    public DatabaseRegisteredClientRepository(OAuth2ClientRepository clientRepository,
+                                              ObjectMapper objectMapper,
+                                              MeterRegistry meterRegistry) {
         this.clientRepository = clientRepository;
         this.objectMapper = objectMapper;
+        this.findByIdTimer = meterRegistry.timer("auth.client.lookup", "by", "id");
+        this.findByClientIdTimer = meterRegistry.timer("auth.client.lookup", "by", "client_id");
     }
 
     @Override
@@ -47,21 +56,23 @@ public class DatabaseRegisteredClientRepository implements RegisteredClientRepos
     }
 
     @Override
+    @Transactional(readOnly = true)
     public RegisteredClient findById(String id) {
         if (id == null) {
             return null;
         }
-        return parseLong(id)
+        return findByIdTimer.record(() -> parseLong(id)
                 .flatMap(clientRepository::findById)
                 .map(this::convertToRegisteredClient)
-                .orElse(null);
+                .orElse(null));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public RegisteredClient findByClientId(String clientId) {
-        return clientRepository.findByClientId(clientId)
+        return findByClientIdTimer.record(() -> clientRepository.findByClientId(clientId)
                 .map(this::convertToRegisteredClient)
-                .orElse(null);
+                .orElse(null));
     }
 
     private RegisteredClient convertToRegisteredClient(OAuth2Client client) {
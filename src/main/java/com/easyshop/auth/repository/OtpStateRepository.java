@@ -3,9 +3,12 @@ package com.easyshop.auth.repository;
 import com.easyshop.auth.exception.BusinessException;
 import com.easyshop.auth.exception.ErrorCode;
 import com.easyshop.auth.model.OtpState;
+import com.easyshop.auth.tracing.AuthTracer;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Optional;
@@ -18,14 +21,23 @@ public class OtpStateRepository {
 
     private final RedisTemplate<String, String> redis;
     private final ObjectMapper objectMapper;
+    private final Timer loadTimer;
+    private final Timer saveTimer;
+    private final Timer deleteTimer;
+    private final AuthTracer tracer;
 
-    OtpStateRepository(RedisTemplate<String, String> redis, ObjectMapper objectMapper) {
+    OtpStateRepository(RedisTemplate<String, String> redis, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                       AuthTracer tracer) {
         this.redis = redis;
         this.objectMapper = objectMapper;
+        this.tracer = tracer;
+        this.loadTimer = meterRegistry.timer("auth.redis.otp_state", "op", "load");
+        this.saveTimer = meterRegistry.timer("auth.redis.otp_state", "op", "save");
+        this.deleteTimer = meterRegistry.timer("auth.redis.otp_state", "op", "delete");
     }
 
     public Optional<OtpState> load(String email) {
-        String raw = redis.opsForValue().get(otpKey(email));
+        String raw = loadTimer.record(() -> tracer.redis("GET", "otp", () -> redis.opsForValue().get(otpKey(email))));
         if (raw == null || raw.isBlank()) {
             return Optional.empty();
         }
@@ -40,7 +52,7 @@ public class OtpStateRepository {
     }
 
     public OtpState findOrThrow(String email, ErrorCode notFoundError) {
-        return load(email).orElseThrow(() -> new BusinessException(notFoundError));
+        return load(email).orElseThrow(() -> BusinessException.of(notFoundError));
     }
 
     public void save(String email, OtpState state, Instant now) {
@@ -50,11 +62,9 @@ public class OtpStateRepository {
             return;
         }
         try {
-            redis.opsForValue().set(
-                    otpKey(email),
-                    objectMapper.writeValueAsString(state),
-                    Duration.ofSeconds(ttlSeconds)
-            );
+            String json = objectMapper.writeValueAsString(state);
+            saveTimer.record(() -> tracer.redis("SET", "otp",
+                    () -> redis.opsForValue().set(otpKey(email), json, Duration.ofSeconds(ttlSeconds))));
         } catch (JsonProcessingException ex) {
             throw new IllegalStateException("Failed to serialize OTP state", ex);
         }
@@ -62,12 +72,12 @@ public class OtpStateRepository {
 
     public void delete(String email) {
         try {
-            redis.delete(otpKey(email));
+            deleteTimer.record(() -> tracer.redis("DEL", "otp", () -> redis.delete(otpKey(email))));
         } catch (DataAccessException ignored) {
         }
     }
 
-    private String otpKey(String email) {
+    static String otpKey(String email) {
         return "otp:%s".formatted(email);
     }
 }
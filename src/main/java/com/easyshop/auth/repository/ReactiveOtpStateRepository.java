@@ -0,0 +1,84 @@
+package com.easyshop.auth.repository;
+
+import com.easyshop.auth.exception.BusinessException;
+import com.easyshop.auth.exception.ErrorCode;
+import com.easyshop.auth.model.OtpState;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link OtpStateRepository} on reactive Lettuce, for the reactive {@code /api/auth} endpoints. Same keys, JSON
+ * format and meters, so both stacks can serve the same Redis data.
+ */
+public class ReactiveOtpStateRepository {
+
+    private final ReactiveStringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final Timer loadTimer;
+    private final Timer saveTimer;
+    private final Timer deleteTimer;
+
+    public ReactiveOtpStateRepository(ReactiveStringRedisTemplate redis, ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.loadTimer = meterRegistry.timer("auth.redis.otp_state", "op", "load");
+        this.saveTimer = meterRegistry.timer("auth.redis.otp_state", "op", "save");
+        this.deleteTimer = meterRegistry.timer("auth.redis.otp_state", "op", "delete");
+    }
+
+    public Mono<OtpState> load(String email) {
+        return timed(loadTimer, redis.opsForValue().get(OtpStateRepository.otpKey(email)))
+                .filter(raw -> !raw.isBlank())
+                .flatMap(raw -> {
+                    try {
+                        return Mono.justOrEmpty(objectMapper.readValue(raw, OtpState.class));
+                    } catch (MismatchedInputException ex) {
+                        return delete(email).then(Mono.empty());
+                    } catch (JsonProcessingException ex) {
+                        return Mono.error(new IllegalStateException("Failed to deserialize OTP state", ex));
+                    }
+                });
+    }
+
+    public Mono<OtpState> findOrThrow(String email, ErrorCode notFoundError) {
+        return load(email).switchIfEmpty(Mono.error(() -> BusinessException.of(notFoundError)));
+    }
+
+    public Mono<Void> save(String email, OtpState state, Instant now) {
+        long ttlSeconds = state.ttlSeconds(now);
+        if (ttlSeconds <= 0 || state.isEmpty()) {
+            return delete(email);
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException ex) {
+            return Mono.error(new IllegalStateException("Failed to serialize OTP state", ex));
+        }
+        return timed(saveTimer, redis.opsForValue()
+                .set(OtpStateRepository.otpKey(email), json, Duration.ofSeconds(ttlSeconds)))
+                .then();
+    }
+
+    public Mono<Void> delete(String email) {
+        return timed(deleteTimer, redis.delete(OtpStateRepository.otpKey(email)))
+                .onErrorResume(DataAccessException.class, ignored -> Mono.empty())
+                .then();
+    }
+
+    private static <T> Mono<T> timed(Timer timer, Mono<T> operation) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start();
+            return operation.doFinally(signal -> sample.stop(timer));
+        });
+    }
+}
@@ -3,18 +3,26 @@ package com.easyshop.auth.repository;
 import com.easyshop.auth.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import jakarta.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
-    
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.email FROM User u")
+    Stream<String> streamAllEmails();
+
     @Query("SELECT u.email FROM User u WHERE u.enabled = false AND u.createdAt < :cutoff")
     List<String> findEmailsOfUnverifiedOlderThan(@Param("cutoff") LocalDateTime cutoff);
 
@@ -22,4 +30,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Transactional
     @Query("DELETE FROM User u WHERE u.enabled = false AND u.createdAt < :cutoff")
     int deleteUnverifiedOlderThan(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Enables a not yet verified account in one statement. Returns 0 if the user is missing or already enabled.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE User u SET u.enabled = true, u.accountNonLocked = true, u.accountNonExpired = true, "
+            + "u.credentialsNonExpired = true, u.updatedAt = :now WHERE u.email = :email AND u.enabled = false")
+    int activateUnverified(@Param("email") String email, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE User u SET u.password = :passwordHash, u.updatedAt = :now WHERE u.email = :email")
+    int updatePassword(@Param("email") String email,
+                       @Param("passwordHash") String passwordHash,
+                       @Param("now") LocalDateTime now);
 }
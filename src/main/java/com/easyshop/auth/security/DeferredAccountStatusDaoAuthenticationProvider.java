@@ -1,5 +1,7 @@
 package com.easyshop.auth.security;
 
+import com.easyshop.auth.context.RequestDeadline;
+import com.easyshop.auth.jfr.LoginAttemptEvent;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -18,11 +20,55 @@ import org.springframework.util.StringUtils;
  * ends with a generic credentials error. This provider defers the final decision: if a disabled
  * exception is raised, we re-evaluate the password and convert the failure to {@link BadCredentialsException}
  * when the password does not match.
+ * <p>
+ * Each attempt is also recorded as a {@link LoginAttemptEvent} when Flight Recorder is capturing it.
+ * Attempts whose {@link RequestDeadline} has already passed are abandoned before the user lookup and hashing.
  */
 public class DeferredAccountStatusDaoAuthenticationProvider extends DaoAuthenticationProvider {
 
+    private static final ThreadLocal<LoginAttemptEvent> CURRENT_ATTEMPT = new ThreadLocal<>();
+
     @Override
     public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        RequestDeadline.check();
+        LoginAttemptEvent event = new LoginAttemptEvent();
+        if (!event.isEnabled()) {
+            return authenticateDeferringAccountStatus(authentication);
+        }
+        event.begin();
+        CURRENT_ATTEMPT.set(event);
+        String outcome = "error";
+        try {
+            Authentication result = authenticateDeferringAccountStatus(authentication);
+            outcome = "success";
+            return result;
+        } catch (AuthenticationException ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            CURRENT_ATTEMPT.remove();
+            event.provider = getClass().getSimpleName();
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication)
+            throws AuthenticationException {
+        LoginAttemptEvent event = CURRENT_ATTEMPT.get();
+        long started = event != null ? event.startPhase() : 0;
+        try {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+        } finally {
+            if (event != null) {
+                event.addHashTime(started);
+            }
+        }
+    }
+
+    private Authentication authenticateDeferringAccountStatus(Authentication authentication) {
         try {
             return super.authenticate(authentication);
         } catch (DisabledException disabled) {
@@ -33,7 +79,7 @@ public class DeferredAccountStatusDaoAuthenticationProvider extends DaoAuthentic
                 }
 
                 UserDetails user = retrieveUser(token.getName(), token);
-                if (!getPasswordEncoder().matches(presentedPassword, user.getPassword())) {
+                if (!passwordMatches(presentedPassword, user.getPassword())) {
                     throw badCredentials(disabled);
                 }
             }
@@ -41,6 +87,18 @@ public class DeferredAccountStatusDaoAuthenticationProvider extends DaoAuthentic
         }
     }
 
+    private boolean passwordMatches(String presentedPassword, String encodedPassword) {
+        LoginAttemptEvent event = CURRENT_ATTEMPT.get();
+        long started = event != null ? event.startPhase() : 0;
+        try {
+            return getPasswordEncoder().matches(presentedPassword, encodedPassword);
+        } finally {
+            if (event != null) {
+                event.addHashTime(started);
+            }
+        }
+    }
+
     private BadCredentialsException badCredentials(Exception cause) {
         return new BadCredentialsException(
                 this.messages.getMessage("AbstractUserDetailsAuthenticationProvider.badCredentials", "Bad credentials"),
@@ -1,13 +1,20 @@
 package com.easyshop.auth.security;
 
 import com.easyshop.auth.exception.RateLimitExceededException;
+import com.easyshop.auth.jfr.RateLimitDecisionEvent;
+import com.easyshop.auth.tracing.AuthTracer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 
@@ -15,18 +22,43 @@ import org.springframework.stereotype.Component;
 public class IpRateLimiter {
 
     private final RedisTemplate<String, String> redis;
-    private final Duration window;
-    private final int maxRequests;
-    private final Set<String> limitedPaths;
+    private final Environment environment;
+    private final Timer redisTimer;
+    private final Counter allowed;
+    private final Counter rejected;
+    private final AuthTracer tracer;
+
+    // Re-read when the Config Server changes them at runtime
+    private volatile Duration window;
+    private volatile int maxRequests;
+    private volatile Set<String> limitedPaths;
 
     public IpRateLimiter(RedisTemplate<String, String> redis,
-                         @Value("${easyshop.auth.rate-limit.window-seconds}") long windowSeconds,
-                         @Value("${easyshop.auth.rate-limit.max-requests}") int maxRequests,
-                         @Value("${easyshop.auth.rate-limit.paths}") String pathList) {
+                         Environment environment,
+                         MeterRegistry meterRegistry,
+                         AuthTracer tracer) {
         this.redis = redis;
-        this.window = Duration.ofSeconds(Math.max(windowSeconds, 1));
-        this.maxRequests = Math.max(maxRequests, 1);
-        this.limitedPaths = parsePaths(pathList);
+        this.environment = environment;
+        this.tracer = tracer;
+        this.redisTimer = meterRegistry.timer("auth.ratelimit.redis");
+        this.allowed = meterRegistry.counter("auth.ratelimit.decisions", "outcome", "allowed");
+        this.rejected = meterRegistry.counter("auth.ratelimit.decisions", "outcome", "rejected");
+        loadSettings();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith("easyshop.auth.rate-limit."))) {
+            loadSettings();
+        }
+    }
+
+    private void loadSettings() {
+        this.window = Duration.ofSeconds(Math.max(
+                environment.getRequiredProperty("easyshop.auth.rate-limit.window-seconds", Long.class), 1));
+        this.maxRequests = Math.max(
+                environment.getRequiredProperty("easyshop.auth.rate-limit.max-requests", Integer.class), 1);
+        this.limitedPaths = parsePaths(environment.getProperty("easyshop.auth.rate-limit.paths"));
     }
 
     public void check(String path, String ipAddress) {
@@ -37,23 +69,46 @@ public class IpRateLimiter {
             return;
         }
 
+        RateLimitDecisionEvent event = new RateLimitDecisionEvent();
+        event.begin();
         String key = ipKey(ipAddress);
-        Long requests = redis.opsForValue().increment(key);
+        Timer.Sample sample = Timer.start();
+        long redisStarted = event.startPhase();
+        Long requests = tracer.redis("INCR", "ratelimit", () -> redis.opsForValue().increment(key));
 
         if (requests != null && requests == 1L) {
-            redis.expire(key, window);
+            tracer.redis("EXPIRE", "ratelimit", () -> redis.expire(key, window));
         }
+        event.addRedisTime(redisStarted);
+        sample.stop(redisTimer);
 
-        if (requests != null && requests > maxRequests) {
-            Long remaining = redis.getExpire(key, TimeUnit.SECONDS);
+        boolean limited = requests != null && requests > maxRequests;
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.outcome = limited ? "rejected" : "allowed";
+            event.requests = requests != null ? requests : -1;
+            event.commit();
+        }
+        if (limited) {
+            rejected.increment();
+            Long remaining = tracer.redis("TTL", "ratelimit", () -> redis.getExpire(key, TimeUnit.SECONDS));
             int retryAfter = remaining != null && remaining > 0
                     ? remaining.intValue()
                     : (int) window.getSeconds();
             throw new RateLimitExceededException(retryAfter, null);
         }
+        allowed.increment();
+    }
+
+    Duration window() {
+        return window;
+    }
+
+    int maxRequests() {
+        return maxRequests;
     }
 
-    private boolean isLimitedPath(String path) {
+    boolean isLimitedPath(String path) {
         if (path == null || path.isBlank()) {
             return false;
         }
@@ -67,7 +122,7 @@ public class IpRateLimiter {
         return !path.endsWith("/") && limitedPaths.contains(path + "/");
     }
 
-    private String ipKey(String ip) {
+    static String ipKey(String ip) {
         return "otp:ip:%s".formatted(ip);
     }
 
@@ -0,0 +1,56 @@
+package com.easyshop.auth.security;
+
+import com.easyshop.auth.context.RequestDeadline;
+import com.easyshop.auth.exception.BusinessException;
+import com.easyshop.auth.exception.ErrorCode;
+import com.easyshop.auth.limiter.LaneExecutors;
+import java.util.function.Supplier;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Runs hashing and verification on the BCrypt pool of the current request lane, so user-facing bursts are
+ * confined to their own cores and client-secret checks on the token endpoint keep theirs.
+ * <p>
+ * The request deadline is checked before queueing and again when a lane thread picks the work up.
+ */
+public class LaneAwarePasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final LaneExecutors laneExecutors;
+
+    public LaneAwarePasswordEncoder(PasswordEncoder delegate, LaneExecutors laneExecutors) {
+        this.delegate = delegate;
+        this.laneExecutors = laneExecutors;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return onLane(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return onLane(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T onLane(Supplier<T> hashing) {
+        RequestDeadline.check();
+        long budget = RequestDeadline.remainingNanos();
+        if (budget == Long.MAX_VALUE) {
+            return laneExecutors.call(hashing);
+        }
+        // The deadline is bound to the request thread, so carry it over to the lane thread
+        long deadline = System.nanoTime() + budget;
+        return laneExecutors.call(() -> {
+            if (deadline - System.nanoTime() <= 0) {
+                throw BusinessException.of(ErrorCode.DEADLINE_EXCEEDED);
+            }
+            return hashing.get();
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package com.easyshop.auth.security;
+
+import com.easyshop.auth.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Mono;
+
+/**
+ * The {@link IpRateLimiter} check on reactive Lettuce. Paths, window and limit (including runtime changes)
+ * come from the servlet limiter, and the Redis counters are shared with it.
+ */
+public class ReactiveIpRateLimiter {
+
+    private final IpRateLimiter limits;
+    private final ReactiveStringRedisTemplate redis;
+    private final Timer redisTimer;
+    private final Counter allowed;
+    private final Counter rejected;
+
+    public ReactiveIpRateLimiter(IpRateLimiter limits, ReactiveStringRedisTemplate redis, MeterRegistry meterRegistry) {
+        this.limits = limits;
+        this.redis = redis;
+        this.redisTimer = meterRegistry.timer("auth.ratelimit.redis");
+        this.allowed = meterRegistry.counter("auth.ratelimit.decisions", "outcome", "allowed");
+        this.rejected = meterRegistry.counter("auth.ratelimit.decisions", "outcome", "rejected");
+    }
+
+    /**
+     * Completes empty when the request may proceed, with a {@link RateLimitExceededException} otherwise.
+     */
+    public Mono<Void> check(String path, String ipAddress) {
+        if (ipAddress == null || ipAddress.isBlank() || !limits.isLimitedPath(path)) {
+            return Mono.empty();
+        }
+        String key = IpRateLimiter.ipKey(ipAddress);
+        Duration window = limits.window();
+        int maxRequests = limits.maxRequests();
+
+        return Mono.defer(() -> {
+                    Timer.Sample sample = Timer.start();
+                    return redis.opsForValue().increment(key)
+                            .flatMap(requests -> requests == 1L
+                                    ? redis.expire(key, window).thenReturn(requests)
+                                    : Mono.just(requests))
+                            .doFinally(signal -> sample.stop(redisTimer));
+                })
+                .flatMap(requests -> {
+                    if (requests <= maxRequests) {
+                        allowed.increment();
+                        return Mono.<Void>empty();
+                    }
+                    rejected.increment();
+                    return redis.getExpire(key)
+                            .filter(remaining -> remaining.getSeconds() > 0)
+                            .defaultIfEmpty(window)
+                            .flatMap(remaining -> Mono.<Void>error(
+                                    new RateLimitExceededException((int) remaining.getSeconds(), null)));
+                });
+    }
+}
@@ -0,0 +1,42 @@
+package com.easyshop.auth.security;
+
+import com.easyshop.auth.jfr.TokenIssuedEvent;
+import com.easyshop.auth.tracing.AuthTracer;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtEncodingException;
+
+/**
+ * Traces JWT signing and completes the {@link TokenIssuedEvent} started by the token customizer with the time
+ * spent signing.
+ */
+public class RecordingJwtEncoder implements JwtEncoder {
+
+    private final JwtEncoder delegate;
+    private final AuthTracer tracer;
+
+    public RecordingJwtEncoder(JwtEncoder delegate, AuthTracer tracer) {
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Jwt encode(JwtEncoderParameters parameters) throws JwtEncodingException {
+        return tracer.inSpan("jwt.sign", () -> recordedEncode(parameters));
+    }
+
+    private Jwt recordedEncode(JwtEncoderParameters parameters) {
+        TokenIssuedEvent event = TokenIssuedEvent.forSigning();
+        if (!event.isEnabled()) {
+            return delegate.encode(parameters);
+        }
+        long started = event.startPhase();
+        try {
+            return delegate.encode(parameters);
+        } finally {
+            event.addSignTime(started);
+            event.commit();
+        }
+    }
+}
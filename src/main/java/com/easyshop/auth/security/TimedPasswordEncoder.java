@@ -0,0 +1,51 @@
+package com.easyshop.auth.security;
+
+import com.easyshop.auth.tracing.AuthTracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Records how long hashing and verification take on the wrapped encoder. BCrypt dominates login and
+ * registration latency, so these timers are the first place to look when the cost factor is tuned.
+ * Each call is also a span, so a slow traced request shows how much of it was hashing.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Timer mismatchTimer;
+    private final AuthTracer tracer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry, AuthTracer tracer) {
+        this.delegate = delegate;
+        this.tracer = tracer;
+        this.encodeTimer = meterRegistry.timer("auth.password.encode");
+        this.matchTimer = meterRegistry.timer("auth.password.matches", "outcome", "match");
+        this.mismatchTimer = meterRegistry.timer("auth.password.matches", "outcome", "mismatch");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return tracer.inSpan("password.encode", () -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return tracer.inSpan("password.matches", () -> timedMatches(rawPassword, encodedPassword));
+    }
+
+    private boolean timedMatches(CharSequence rawPassword, String encodedPassword) {
+        long started = System.nanoTime();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        (matches ? matchTimer : mismatchTimer).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -1,6 +1,9 @@
 package com.easyshop.auth.service;
 
+import com.easyshop.auth.cache.UserDetailsCache;
+import com.easyshop.auth.datasource.PrimaryReadPinning;
 import com.easyshop.auth.repository.UserRepository;
+import com.easyshop.auth.web.EmailNormalizer;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -10,19 +13,28 @@ import org.springframework.transaction.annotation.Transactional;
 /**
  * {@link UserDetailsService} implementation that loads users from the database using {@link UserRepository}.
  * The user's email is used as the unique identifier for authentication.
+ * Lookups go through {@link UserDetailsCache} so repeated logins of hot accounts skip the database,
+ * and accounts written moments ago are read from the primary rather than a possibly lagging replica.
  */
 @Service
 @Transactional(readOnly = true)
 public class DatabaseUserDetailsService implements UserDetailsService {
     private final UserRepository users;
+    private final UserDetailsCache userDetailsCache;
+    private final PrimaryReadPinning primaryReadPinning;
 
-    public DatabaseUserDetailsService(UserRepository users) {
+    public DatabaseUserDetailsService(UserRepository users,
+                                      UserDetailsCache userDetailsCache,
+                                      PrimaryReadPinning primaryReadPinning) {
         this.users = users;
+        this.userDetailsCache = userDetailsCache;
+        this.primaryReadPinning = primaryReadPinning;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return users.findByEmail(username.toLowerCase().trim())
+        return userDetailsCache.get(EmailNormalizer.normalize(username),
+                        email -> primaryReadPinning.read(email, () -> users.findByEmail(email)))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
 }
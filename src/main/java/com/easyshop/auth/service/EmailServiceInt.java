@@ -1,5 +1,9 @@
 package com.easyshop.auth.service;
 
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
 public interface EmailServiceInt {
     void sendVerificationEmail(String email, String otpCode);
+    CompletableFuture<Void> sendVerificationEmailAsync(String email, String otpCode, Locale locale);
 }
@@ -1,7 +1,13 @@
 package com.easyshop.auth.service.impl;
 
+import com.easyshop.auth.cache.RegisteredEmailFilter;
+import com.easyshop.auth.cache.UserDetailsCache;
+import com.easyshop.auth.context.RequestDeadline;
+import com.easyshop.auth.datasource.PrimaryReadPinning;
 import com.easyshop.auth.exception.BusinessException;
 import com.easyshop.auth.exception.ErrorCode;
+import com.easyshop.auth.logging.EmailHasher;
+import com.easyshop.auth.logging.LogEvents;
 import com.easyshop.auth.model.dto.AuthDto;
 import com.easyshop.auth.model.dto.OtpSendResultDto;
 import com.easyshop.auth.model.dto.PasswordResetDto;
@@ -9,6 +15,8 @@ import com.easyshop.auth.model.entity.User;
 import com.easyshop.auth.repository.UserRepository;
 import com.easyshop.auth.service.AuthServiceInt;
 import com.easyshop.auth.service.OtpServiceInt;
+import com.easyshop.auth.tracing.AuthTracer;
+import java.time.LocalDateTime;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -21,42 +29,79 @@ public class AuthService implements AuthServiceInt {
     private final OtpServiceInt otpService;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final PrimaryReadPinning primaryReadPinning;
+    private final EmailHasher emailHasher;
+    private final AuthTracer tracer;
 
     public AuthService(OtpServiceInt otpService,
                        UserRepository userRepository,
-                       PasswordEncoder passwordEncoder) {
+                       PasswordEncoder passwordEncoder,
+                       UserDetailsCache userDetailsCache,
+                       RegisteredEmailFilter registeredEmailFilter,
+                       PrimaryReadPinning primaryReadPinning,
+                       EmailHasher emailHasher,
+                       AuthTracer tracer) {
         this.otpService = otpService;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
+        this.registeredEmailFilter = registeredEmailFilter;
+        this.primaryReadPinning = primaryReadPinning;
+        this.emailHasher = emailHasher;
+        this.tracer = tracer;
     }
 
     @Override
     @Transactional
     public OtpSendResultDto register(AuthDto dto) {
         String email = dto.getEmail();
+        boolean resumed = persistRegistration(dto);
+        OtpSendResultDto result = otpService.generateOtp(email, true);
+        if (resumed) {
+            log.info(LogEvents.REGISTRATION_RESUMED, "Registration resumed for {}.", emailHasher.hashed(email));
+        } else {
+            log.info(LogEvents.REGISTRATION_STARTED, "Registration started for {}.", emailHasher.hashed(email));
+        }
+        return result;
+    }
+
+    /**
+     * Stores a new unverified user, or the new password of one that never finished registration.
+     *
+     * @return whether an unverified registration was resumed
+     */
+    @Transactional
+    public boolean persistRegistration(AuthDto dto) {
+        String email = dto.getEmail();
 
-        User user = userRepository.findByEmail(email).orElse(null);
+        User user = tracer.inSpan("register.user-lookup", () -> userRepository.findByEmail(email)).orElse(null);
+        RequestDeadline.check();
         String encodedPwd = passwordEncoder.encode(dto.getPassword());
 
         // Continue registration for not yet verified user
         if (user != null) {
             // If user exists and already verified -> conflict
             if (Boolean.TRUE.equals(user.getEnabled())) {
-                throw new BusinessException(ErrorCode.EMAIL_ALREADY_USED);
+                throw BusinessException.of(ErrorCode.EMAIL_ALREADY_USED);
             }
 
             user.setPassword(encodedPwd);
-            userRepository.save(user);
-            OtpSendResultDto result = otpService.generateOtp(email, true);
-            log.info("Registration resumed for {}.", email);
-            return result;
+            RequestDeadline.check();
+            tracer.inSpan("register.persist", () -> userRepository.save(user));
+            userDetailsCache.invalidate(email);
+            primaryReadPinning.pin(email);
+            return true;
         }
 
         // First-time registration
-        userRepository.save(User.from(dto, encodedPwd, false));
-        OtpSendResultDto result = otpService.generateOtp(email, true);
-        log.info("Registration started for {}.", email);
-        return result;
+        RequestDeadline.check();
+        tracer.inSpan("register.persist", () -> userRepository.save(User.from(dto, encodedPwd, false)));
+        userDetailsCache.invalidate(email);
+        registeredEmailFilter.register(email);
+        primaryReadPinning.pin(email);
+        return false;
     }
 
     @Override
@@ -64,17 +109,29 @@ public class AuthService implements AuthServiceInt {
     public void resetPassword(PasswordResetDto request) {
         // TODO move this check into advice layer
         if (!request.getPassword().equals(request.getConfirmPassword())) {
-            throw new BusinessException(ErrorCode.PASSWORDS_DO_NOT_MATCH);
+            throw BusinessException.of(ErrorCode.PASSWORDS_DO_NOT_MATCH);
         }
 
         otpService.validateResetToken(request.getEmail(), request.getResetToken());
 
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
+        updatePassword(request.getEmail(), request.getPassword());
+    }
 
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        userRepository.save(user);
+    /**
+     * Stores the new password of an account whose reset token has already been consumed.
+     */
+    @Transactional
+    public void updatePassword(String email, String rawPassword) {
+        RequestDeadline.check();
+        String encodedPwd = passwordEncoder.encode(rawPassword);
+        int updated = tracer.inSpan("reset-password.persist",
+                () -> userRepository.updatePassword(email, encodedPwd, LocalDateTime.now()));
+        if (updated == 0) {
+            throw BusinessException.of(ErrorCode.USER_NOT_FOUND);
+        }
+        userDetailsCache.invalidate(email);
+        primaryReadPinning.pin(email);
 
-        log.info("Password reset completed for {}", request.getEmail());
+        log.info(LogEvents.PASSWORD_RESET, "Password reset completed for {}", emailHasher.hashed(email));
     }
 }
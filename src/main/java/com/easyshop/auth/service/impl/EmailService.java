@@ -2,13 +2,20 @@ package com.easyshop.auth.service.impl;
 
 import com.easyshop.auth.exception.BusinessException;
 import com.easyshop.auth.exception.ErrorCode;
+import com.easyshop.auth.jfr.EmailSendEvent;
+import com.easyshop.auth.logging.EmailHasher;
 import com.easyshop.auth.service.EmailServiceInt;
+import com.easyshop.auth.tracing.AuthTracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -18,11 +25,16 @@ import org.thymeleaf.context.Context;
 
 import java.io.UnsupportedEncodingException;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @Slf4j
 @Service
 public class EmailService implements EmailServiceInt {
 
+    private static final String OTP_TEMPLATE = "email/otp-verification";
+
     @Value("${easyshop.mail.from-email}")
     String fromEmail;
     @Value("${easyshop.mail.from-name}")
@@ -31,37 +43,138 @@ public class EmailService implements EmailServiceInt {
     private final JavaMailSender mailSender;
     private final TemplateEngine templateEngine;
     private final MessageSource messageSource;
+    private final Executor mailSendExecutor;
+    private final Executor blockingSendExecutor;
+    private final MeterRegistry meterRegistry;
+    private final EmailHasher emailHasher;
+    private final AuthTracer tracer;
 
     public EmailService(JavaMailSender mailSender,
                         TemplateEngine templateEngine,
-                        MessageSource messageSource) {
+                        MessageSource messageSource,
+                        MailSendPool mailSendPool,
+                        MeterRegistry meterRegistry,
+                        EmailHasher emailHasher,
+                        AuthTracer tracer,
+                        @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         this.mailSender = mailSender;
         this.templateEngine = templateEngine;
         this.messageSource = messageSource;
+        this.mailSendExecutor = mailSendPool.executor();
+        // Platform request threads can hold the JavaMail monitor themselves; virtual ones would pin their carrier
+        this.blockingSendExecutor = virtualThreads ? this.mailSendExecutor : new SyncTaskExecutor();
+        this.meterRegistry = meterRegistry;
+        this.emailHasher = emailHasher;
+        this.tracer = tracer;
     }
 
     @Override
     public void sendVerificationEmail(String email, String otpCode) {
         Locale locale = LocaleContextHolder.getLocale();
+        EmailSendEvent event = new EmailSendEvent();
+        event.begin();
+        String outcome = "failure";
         try {
-            String subject = messageSource.getMessage("email.verification.subject", null, locale);
-
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            MimeMessage message = buildVerificationMessage(email, otpCode, locale, event);
 
-            Context context = new Context(locale);
-            context.setVariable("verificationCode", otpCode);
-            String content = templateEngine.process("email/otp-verification", context);
+            long smtpStarted = event.startPhase();
+            try {
+                tracer.inSpan("smtp.send", () -> send(message));
+            } finally {
+                event.addSmtpTime(smtpStarted);
+            }
+            outcome = "success";
+        } catch (MailException | MessagingException | UnsupportedEncodingException | TaskRejectedException e) {
+            log.error("Failed to send verification email to: {}", emailHasher.hashed(email), e);
+            throw new BusinessException(ErrorCode.EMAIL_SEND_ERROR, e);
+        } finally {
+            event.template = OTP_TEMPLATE;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
 
-            helper.setFrom(fromEmail, fromName);
-            helper.setTo(email);
-            helper.setSubject(subject);
-            helper.setText(content, true);
+    /**
+     * Renders and sends on the mail executor; the returned future fails with a {@link BusinessException}.
+     * Used by the reactive endpoints, which must not wait for SMTP on their own threads.
+     */
+    @Override
+    public CompletableFuture<Void> sendVerificationEmailAsync(String email, String otpCode, Locale locale) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<Void> sent;
+        try {
+            sent = CompletableFuture.runAsync(() -> deliver(email, otpCode, locale), mailSendExecutor);
+        } catch (TaskRejectedException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        return sent.handle((ignored, failure) -> {
+            Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+            sample.stop(meterRegistry.timer("auth.email.send", "outcome", cause == null ? "success" : "failure"));
+            if (cause == null) {
+                return null;
+            }
+            log.error("Failed to send verification email to: {}", emailHasher.hashed(email), cause);
+            throw cause instanceof BusinessException businessException
+                    ? businessException
+                    : new BusinessException(ErrorCode.EMAIL_SEND_ERROR, cause);
+        });
+    }
 
-            mailSender.send(message);
-        } catch (MailException | MessagingException | UnsupportedEncodingException e) {
-            log.error("Failed to send verification email to: {}", email, e);
+    private void deliver(String email, String otpCode, Locale locale) {
+        EmailSendEvent event = new EmailSendEvent();
+        event.begin();
+        String outcome = "failure";
+        try {
+            MimeMessage message = buildVerificationMessage(email, otpCode, locale, event);
+            long smtpStarted = event.startPhase();
+            try {
+                mailSender.send(message);
+            } finally {
+                event.addSmtpTime(smtpStarted);
+            }
+            outcome = "success";
+        } catch (MessagingException | UnsupportedEncodingException e) {
             throw new BusinessException(ErrorCode.EMAIL_SEND_ERROR, e);
+        } finally {
+            event.template = OTP_TEMPLATE;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    private MimeMessage buildVerificationMessage(String email, String otpCode, Locale locale, EmailSendEvent event)
+            throws MessagingException, UnsupportedEncodingException {
+        String subject = messageSource.getMessage("email.verification.subject", null, locale);
+
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        Context context = new Context(locale);
+        context.setVariable("verificationCode", otpCode);
+        long renderStarted = event.startPhase();
+        String content = tracer.inSpan("email.render", () -> templateEngine.process(OTP_TEMPLATE, context));
+        event.addRenderTime(renderStarted);
+
+        helper.setFrom(fromEmail, fromName);
+        helper.setTo(email);
+        helper.setSubject(subject);
+        helper.setText(content, true);
+        return message;
+    }
+
+    private void send(MimeMessage message) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            CompletableFuture.runAsync(() -> mailSender.send(message), blockingSendExecutor).join();
+            outcome = "success";
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("auth.email.send", "outcome", outcome));
         }
     }
 }
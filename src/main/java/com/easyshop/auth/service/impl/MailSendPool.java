@@ -0,0 +1,37 @@
+package com.easyshop.auth.service.impl;
+
+import java.util.concurrent.Executor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Platform-thread pool for the SMTP exchange in {@link EmailService}.
+ * <p>
+ * JavaMail's transport does its socket I/O inside {@code synchronized} methods, which pins a virtual thread to its
+ * carrier for the whole exchange, so with virtual threads enabled the send is handed to this pool and the calling
+ * virtual thread just parks. The reactive endpoints always use it, since they hand the send off and never wait.
+ * <p>
+ * The pool is wrapped rather than exposed as an {@code Executor} bean: Spring Boot backs its
+ * {@code applicationTaskExecutor} off when any {@code Executor} bean exists. Threads are started on first use.
+ */
+public class MailSendPool {
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    public MailSendPool(int sendThreads, int queueCapacity) {
+        executor.setThreadNamePrefix("mail-send-");
+        executor.setCorePoolSize(Math.max(sendThreads, 1));
+        executor.setMaxPoolSize(Math.max(sendThreads, 1));
+        executor.setQueueCapacity(Math.max(queueCapacity, 0));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+    }
+
+    public Executor executor() {
+        return executor;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
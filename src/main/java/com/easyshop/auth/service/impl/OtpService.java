@@ -1,24 +1,33 @@
 package com.easyshop.auth.service.impl;
 
+import com.easyshop.auth.cache.RegisteredEmailFilter;
+import com.easyshop.auth.context.RequestDeadline;
+import com.easyshop.auth.datasource.PrimaryReadPinning;
 import com.easyshop.auth.exception.BusinessException;
 import com.easyshop.auth.exception.ErrorCode;
 import com.easyshop.auth.exception.RateLimitExceededException;
+import com.easyshop.auth.jfr.OtpEvent;
+import com.easyshop.auth.jfr.OtpSendEvent;
+import com.easyshop.auth.jfr.OtpVerifyEvent;
+import com.easyshop.auth.logging.EmailHasher;
+import com.easyshop.auth.logging.LogEvents;
 import com.easyshop.auth.model.OtpState;
 import com.easyshop.auth.model.dto.OtpSendResultDto;
 import com.easyshop.auth.model.dto.VerifyCodeDto;
 import com.easyshop.auth.model.dto.VerifyCodeResponseDto;
-import com.easyshop.auth.model.entity.User;
 import com.easyshop.auth.repository.OtpStateRepository;
 import com.easyshop.auth.repository.UserRepository;
 import com.easyshop.auth.service.EmailServiceInt;
 import com.easyshop.auth.service.OtpServiceInt;
-import java.security.SecureRandom;
-import java.time.Duration;
+import com.easyshop.auth.service.impl.OtpTransitions.SendStep;
+import com.easyshop.auth.service.impl.OtpTransitions.VerifyStep;
+import com.easyshop.auth.tracing.AuthTracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Instant;
-import java.util.Objects;
-import java.util.UUID;
+import java.util.Locale;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import static com.easyshop.auth.exception.ErrorCode.PASSWORD_RESET_CODE_NOT_FOUND;
@@ -30,27 +39,32 @@ public class OtpService implements OtpServiceInt {
     private final EmailServiceInt emailService;
     private final UserRepository userRepository;
     private final OtpStateRepository otpStateRepository;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final OtpTransitions transitions;
+    private final PrimaryReadPinning primaryReadPinning;
+    private final EmailHasher emailHasher;
 
-    private final Duration otpTtl;
-    private final Duration resendCooldown;
-    private final Duration resetTokenTtl;
-    private final int maxAttempts;
-    private final SecureRandom secureRandom = new SecureRandom();
+    private final MeterRegistry meterRegistry;
+    private final AuthTracer tracer;
 
     public OtpService(EmailServiceInt emailService,
                       UserRepository userRepository,
                       OtpStateRepository otpStateRepository,
-                      @Value("${easyshop.auth.verification-ttl-minutes}") long otpTtlMinutes,
-                      @Value("${easyshop.auth.verification-resend-cooldown-seconds}") long resendCooldownSeconds,
-                      @Value("${easyshop.auth.reset-token-ttl-minutes}") long resetTokenTtlMinutes,
-                      @Value("${easyshop.auth.verification-max-attempts}") int maxAttempts) {
+                      RegisteredEmailFilter registeredEmailFilter,
+                      OtpTransitions transitions,
+                      PrimaryReadPinning primaryReadPinning,
+                      EmailHasher emailHasher,
+                      MeterRegistry meterRegistry,
+                      AuthTracer tracer) {
         this.emailService = emailService;
         this.userRepository = userRepository;
         this.otpStateRepository = otpStateRepository;
-        this.otpTtl = Duration.ofMinutes(Math.max(otpTtlMinutes, 1));
-        this.resendCooldown = Duration.ofSeconds(Math.max(resendCooldownSeconds, 1));
-        this.resetTokenTtl = Duration.ofMinutes(Math.max(resetTokenTtlMinutes, 1));
-        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.registeredEmailFilter = registeredEmailFilter;
+        this.transitions = transitions;
+        this.primaryReadPinning = primaryReadPinning;
+        this.emailHasher = emailHasher;
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
     }
 
     @Override
@@ -60,159 +74,146 @@ public class OtpService implements OtpServiceInt {
 
     @Override
     public OtpSendResultDto generateOtp(String email, boolean forceResend) {
-        // If user does not exist, do not send anything (avoid enumeration/spam)
-        Instant now = Instant.now();
-        if (userRepository.findByEmail(email).isEmpty()) {
-            return OtpSendResultDto.builder()
-                    .cooldownSeconds(resendCooldown.getSeconds())
-                    .cooldownUntil(now.plus(resendCooldown))
-                    .otpStatus("ignored")
-                    .build();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        OtpSendEvent event = new OtpSendEvent();
+        event.begin();
+        String outcome = "error";
+        try {
+            OtpSendResultDto result = tracer.inSpan("otp.send", () -> send(email, forceResend, event));
+            outcome = result.getOtpStatus();
+            return result;
+        } catch (RateLimitExceededException ex) {
+            outcome = "cooldown";
+            throw ex;
+        } finally {
+            sample.stop(meterRegistry.timer("auth.otp.send", "outcome", outcome));
+            event.outcome = outcome;
+            event.commit();
         }
+    }
 
-        OtpState otp = otpStateRepository.load(email).orElseGet(OtpState::empty);
-
-        if (otp.hasOtp() && !otp.isOtpExpired(now)) {
-            if (!forceResend) {
-                enforceCooldown(otp, now);
-            }
+    @Override
+    public VerifyCodeResponseDto verifyOtp(VerifyCodeDto dto) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        OtpVerifyEvent event = new OtpVerifyEvent();
+        event.begin();
+        String outcome = "error";
+        try {
+            VerifyCodeResponseDto response = tracer.inSpan("otp.verify", () -> verify(dto, event));
+            outcome = "success";
+            return response;
+        } catch (BusinessException ex) {
+            outcome = ex.getErrorCode().name().toLowerCase(Locale.ROOT);
+            throw ex;
+        } finally {
+            sample.stop(meterRegistry.timer("auth.otp.verify", "outcome", outcome));
+            event.outcome = outcome;
+            event.activation = Boolean.TRUE.equals(dto.getActivateUser());
+            event.commit();
+        }
+    }
 
-            String code = otp.getCode();
-            if (code != null && !code.isBlank()) {
-                OtpState updated = otp.withCooldownUntil(now.plus(resendCooldown));
-                otpStateRepository.save(email, updated, now);
-                try {
-                    emailService.sendVerificationEmail(email, code);
-                    log.info("OTP re-sent for {}", email);
-                } catch (RuntimeException ex) {
-                    otpStateRepository.save(email, otp, now);
-                    log.warn("Failed to resend OTP to email {}", email, ex);
-                    throw ex;
-                }
-                return buildResult(updated, Instant.now(), "resent");
-            }
+    private OtpSendResultDto send(String email, boolean forceResend, OtpSendEvent event) {
+        // If user does not exist, do not send anything (avoid enumeration/spam)
+        Instant now = Instant.now();
+        if (!registeredEmailFilter.mightBeRegistered(email)
+                || tracer.inSpan("otp.user-lookup",
+                        () -> primaryReadPinning.read(email, () -> userRepository.findByEmail(email))).isEmpty()) {
+            return transitions.ignoredResult(now);
         }
 
-        String code = generateCode();
-        OtpState updated = otp.startOtp(code, now, otpTtl, resendCooldown);
-        otpStateRepository.save(email, updated, now);
+        RequestDeadline.check();
+        OtpState otp = timedRedis(event, () -> otpStateRepository.load(email)).orElseGet(OtpState::empty);
+        SendStep step = transitions.send(otp, forceResend, now);
+        RequestDeadline.check();
+        timedRedis(event, () -> otpStateRepository.save(email, step.next(), now));
 
         try {
-            emailService.sendVerificationEmail(email, code);
-            log.info("OTP generated for {}", email);
+            // Checked inside the try so an abandoned send also rolls back the state it just stored
+            RequestDeadline.check();
+            sendEmail(event, email, step.code());
+            if (step.isResend()) {
+                log.info(LogEvents.OTP_RESENT, "OTP re-sent for {}", emailHasher.hashed(email));
+            } else {
+                log.info(LogEvents.OTP_GENERATED, "OTP generated for {}", emailHasher.hashed(email));
+            }
         } catch (RuntimeException ex) {
-            otpStateRepository.delete(email);
-            log.warn("Failed to send OTP to email {}", email, ex);
+            if (step.isResend()) {
+                timedRedis(event, () -> otpStateRepository.save(email, step.previous(), now));
+                log.warn("Failed to resend OTP to email {}", emailHasher.hashed(email), ex);
+            } else {
+                timedRedis(event, () -> otpStateRepository.delete(email));
+                log.warn("Failed to send OTP to email {}", emailHasher.hashed(email), ex);
+            }
             throw ex;
         }
-        return buildResult(updated, Instant.now(), "generated");
+        return transitions.result(step, Instant.now());
     }
 
-    @Override
-    public VerifyCodeResponseDto verifyOtp(VerifyCodeDto dto) {
+    private VerifyCodeResponseDto verify(VerifyCodeDto dto, OtpVerifyEvent event) {
         Instant now = Instant.now();
         String email = dto.getEmail();
-        OtpState state = otpStateRepository.findOrThrow(email, ErrorCode.VERIFICATION_CODE_NOT_FOUND);
-
-        if (!state.hasOtp()) {
-            throw new BusinessException(ErrorCode.VERIFICATION_CODE_NOT_FOUND);
-        }
-        if (state.isOtpExpired(now)) {
-            otpStateRepository.delete(email);
-            throw new BusinessException(ErrorCode.VERIFICATION_CODE_EXPIRED);
-        }
-
-        OtpState attemptsState = state.incrementAttempts();
-        if (attemptsState.getAttempts() > maxAttempts) {
-            otpStateRepository.delete(email);
-            throw new BusinessException(ErrorCode.TOO_MANY_VERIFICATION_ATTEMPTS);
+        OtpState state = timedRedis(event,
+                () -> otpStateRepository.findOrThrow(email, ErrorCode.VERIFICATION_CODE_NOT_FOUND));
+
+        VerifyStep step = transitions.verify(state, dto, now);
+        switch (step.persist()) {
+            case SAVE -> timedRedis(event, () -> otpStateRepository.save(email, step.state(), now));
+            case DELETE -> timedRedis(event, () -> otpStateRepository.delete(email));
+            case NONE -> {
+            }
         }
-
-        if (!Objects.equals(attemptsState.getCode(), dto.getCode())) {
-            otpStateRepository.save(email, attemptsState, now);
-            throw new BusinessException(ErrorCode.VERIFICATION_CODE_INVALID);
+        if (step.failure() != null) {
+            throw BusinessException.of(step.failure());
         }
 
-        OtpState cleared = attemptsState.clearOtp();
-
         // registration flow
-        if (Boolean.TRUE.equals(dto.getActivateUser())) {
-            otpStateRepository.delete(email);
-            enableUser(email);
+        if (step.activate()) {
+            tracer.inSpan("otp.activate-user",
+                    () -> PrimaryReadPinning.runOnPrimary(() -> transitions.activate(email)));
             return null;
         }
 
         // reset password flow
-        String resetToken = generateResetToken();
-        OtpState withToken = cleared.issueResetToken(resetToken, now.plus(resetTokenTtl));
-        otpStateRepository.save(email, withToken, now);
-        log.info("OTP verified for {}. Reset token issued.", email);
-        return new VerifyCodeResponseDto(resetToken);
+        log.info(LogEvents.OTP_VERIFIED, "OTP verified for {}. Reset token issued.", emailHasher.hashed(email));
+        return new VerifyCodeResponseDto(step.resetToken());
     }
 
     @Override
     public void validateResetToken(String email, String resetToken) {
         OtpState state = otpStateRepository.findOrThrow(email, PASSWORD_RESET_CODE_NOT_FOUND);
-
-        if (!state.hasResetToken()) {
-            otpStateRepository.delete(email);
-            throw new BusinessException(PASSWORD_RESET_CODE_NOT_FOUND);
-        }
-        if (state.isResetTokenExpired(Instant.now())) {
-            otpStateRepository.delete(email);
-            throw new BusinessException(ErrorCode.PASSWORD_RESET_CODE_EXPIRED);
-        }
-        if (!Objects.equals(state.getResetToken(), resetToken)) {
-            otpStateRepository.delete(email);
-            throw new BusinessException(ErrorCode.PASSWORD_RESET_CODE_INVALID);
-        }
-
+        ErrorCode failure = transitions.resetTokenFailure(state, resetToken, Instant.now());
+        // The token is single-use whatever the outcome
         otpStateRepository.delete(email);
-    }
-
-    private void enableUser(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
-
-        if (Boolean.TRUE.equals(user.getEnabled())) {
-            throw new BusinessException(ErrorCode.ALREADY_VERIFIED);
+        if (failure != null) {
+            throw BusinessException.of(failure);
         }
-
-        user.setEnabled(true);
-        user.setAccountNonLocked(true);
-        user.setAccountNonExpired(true);
-        user.setCredentialsNonExpired(true);
-        userRepository.save(user);
-
-        log.info("User {} email verified and account enabled.", email);
     }
 
-    private void enforceCooldown(OtpState state, Instant now) {
-        if (!state.inCooldown(now)) {
-            return;
+    private void sendEmail(OtpSendEvent event, String email, String code) {
+        long started = event.startPhase();
+        try {
+            emailService.sendVerificationEmail(email, code);
+        } finally {
+            event.addEmailTime(started);
         }
-        long retryAfter = state.getCooldownUntil().getEpochSecond() - now.getEpochSecond();
-        throw new RateLimitExceededException((int) Math.max(1, retryAfter), state.getCooldownUntil());
     }
 
-    private String generateResetToken() {
-        return UUID.randomUUID().toString();
-    }
-
-    private String generateCode() {
-        int value = secureRandom.nextInt(90_000_000) + 10_000_000;
-        return Integer.toString(value);
+    private static <T> T timedRedis(OtpEvent event, Supplier<T> operation) {
+        long started = event.startPhase();
+        try {
+            return operation.get();
+        } finally {
+            event.addRedisTime(started);
+        }
     }
 
-    private OtpSendResultDto buildResult(OtpState state, Instant now, String status) {
-        Instant cooldownUntil = state.getCooldownUntil();
-        long remaining = cooldownUntil != null
-                ? Math.max(0, cooldownUntil.getEpochSecond() - now.getEpochSecond())
-                : resendCooldown.getSeconds();
-        return OtpSendResultDto.builder()
-                .cooldownSeconds(remaining)
-                .cooldownUntil(cooldownUntil)
-                .otpStatus(status)
-                .build();
+    private static void timedRedis(OtpEvent event, Runnable operation) {
+        long started = event.startPhase();
+        try {
+            operation.run();
+        } finally {
+            event.addRedisTime(started);
+        }
     }
 }
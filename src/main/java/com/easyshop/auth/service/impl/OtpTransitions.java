@@ -0,0 +1,228 @@
+package com.easyshop.auth.service.impl;
+
+import com.easyshop.auth.cache.UserDetailsCache;
+import com.easyshop.auth.datasource.PrimaryReadPinning;
+import com.easyshop.auth.exception.BusinessException;
+import com.easyshop.auth.exception.ErrorCode;
+import com.easyshop.auth.exception.RateLimitExceededException;
+import com.easyshop.auth.logging.EmailHasher;
+import com.easyshop.auth.logging.LogEvents;
+import com.easyshop.auth.model.OtpState;
+import com.easyshop.auth.model.dto.OtpSendResultDto;
+import com.easyshop.auth.model.dto.VerifyCodeDto;
+import com.easyshop.auth.repository.UserRepository;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import static com.easyshop.auth.exception.ErrorCode.PASSWORD_RESET_CODE_NOT_FOUND;
+
+/**
+ * OTP rules shared by {@link OtpService} and {@link ReactiveOtpService}: given the stored {@link OtpState}, decides
+ * what to store next and what to answer. The services only carry out the returned step with their own Redis client,
+ * so the blocking and reactive flows cannot drift apart.
+ * <p>
+ * Settings are re-read when the Config Server changes them at runtime.
+ */
+@Slf4j
+@Component
+public class OtpTransitions {
+
+    private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final PrimaryReadPinning primaryReadPinning;
+    private final EmailHasher emailHasher;
+    private final Environment environment;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private volatile Duration otpTtl;
+    private volatile Duration resendCooldown;
+    private volatile Duration resetTokenTtl;
+    private volatile int maxAttempts;
+
+    public OtpTransitions(UserRepository userRepository,
+                          UserDetailsCache userDetailsCache,
+                          PrimaryReadPinning primaryReadPinning,
+                          EmailHasher emailHasher,
+                          Environment environment) {
+        this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.primaryReadPinning = primaryReadPinning;
+        this.emailHasher = emailHasher;
+        this.environment = environment;
+        loadSettings();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith("easyshop.auth."))) {
+            loadSettings();
+            log.info("OTP settings reloaded: ttl={}, cooldown={}, resetTokenTtl={}, maxAttempts={}",
+                    otpTtl, resendCooldown, resetTokenTtl, maxAttempts);
+        }
+    }
+
+    private void loadSettings() {
+        this.otpTtl = Duration.ofMinutes(Math.max(
+                environment.getRequiredProperty("easyshop.auth.verification-ttl-minutes", Long.class), 1));
+        this.resendCooldown = Duration.ofSeconds(Math.max(
+                environment.getRequiredProperty("easyshop.auth.verification-resend-cooldown-seconds", Long.class), 1));
+        this.resetTokenTtl = Duration.ofMinutes(Math.max(
+                environment.getRequiredProperty("easyshop.auth.reset-token-ttl-minutes", Long.class), 1));
+        this.maxAttempts = Math.max(
+                environment.getRequiredProperty("easyshop.auth.verification-max-attempts", Integer.class), 1);
+    }
+
+    /**
+     * Picks the code to email: the still valid one again, or a fresh one.
+     *
+     * @throws RateLimitExceededException when a valid code is in its resend cooldown and {@code forceResend} is off
+     */
+    public SendStep send(OtpState current, boolean forceResend, Instant now) {
+        if (current.hasOtp() && !current.isOtpExpired(now)) {
+            if (!forceResend) {
+                enforceCooldown(current, now);
+            }
+            String code = current.getCode();
+            if (code != null && !code.isBlank()) {
+                return new SendStep(current.withCooldownUntil(now.plus(resendCooldown)), current, code);
+            }
+        }
+        String code = generateCode();
+        return new SendStep(current.startOtp(code, now, otpTtl, resendCooldown), null, code);
+    }
+
+    /**
+     * Checks the submitted code against the stored state. Without a state the caller answers
+     * {@link ErrorCode#VERIFICATION_CODE_NOT_FOUND} itself.
+     */
+    public VerifyStep verify(OtpState state, VerifyCodeDto dto, Instant now) {
+        if (!state.hasOtp()) {
+            return VerifyStep.failed(Persist.NONE, null, ErrorCode.VERIFICATION_CODE_NOT_FOUND);
+        }
+        if (state.isOtpExpired(now)) {
+            return VerifyStep.failed(Persist.DELETE, null, ErrorCode.VERIFICATION_CODE_EXPIRED);
+        }
+
+        OtpState attemptsState = state.incrementAttempts();
+        if (attemptsState.getAttempts() > maxAttempts) {
+            return VerifyStep.failed(Persist.DELETE, null, ErrorCode.TOO_MANY_VERIFICATION_ATTEMPTS);
+        }
+        if (!Objects.equals(attemptsState.getCode(), dto.getCode())) {
+            return VerifyStep.failed(Persist.SAVE, attemptsState, ErrorCode.VERIFICATION_CODE_INVALID);
+        }
+
+        // registration flow
+        if (Boolean.TRUE.equals(dto.getActivateUser())) {
+            return new VerifyStep(Persist.DELETE, null, null, true, null);
+        }
+
+        // reset password flow
+        String resetToken = UUID.randomUUID().toString();
+        OtpState withToken = attemptsState.clearOtp().issueResetToken(resetToken, now.plus(resetTokenTtl));
+        return new VerifyStep(Persist.SAVE, withToken, null, false, resetToken);
+    }
+
+    /**
+     * Error for a reset token that does not match the stored state, or {@code null} when it is valid. The token
+     * is single-use, so the caller deletes the state whatever the outcome.
+     */
+    public ErrorCode resetTokenFailure(OtpState state, String resetToken, Instant now) {
+        if (!state.hasResetToken()) {
+            return PASSWORD_RESET_CODE_NOT_FOUND;
+        }
+        if (state.isResetTokenExpired(now)) {
+            return ErrorCode.PASSWORD_RESET_CODE_EXPIRED;
+        }
+        if (!Objects.equals(state.getResetToken(), resetToken)) {
+            return ErrorCode.PASSWORD_RESET_CODE_INVALID;
+        }
+        return null;
+    }
+
+    /**
+     * Enables the account after a successful registration code. Blocking; run it on the primary.
+     */
+    public void activate(String email) {
+        // Single conditional UPDATE; the lookup below only runs to pick the error
+        if (userRepository.activateUnverified(email, LocalDateTime.now()) == 0) {
+            throw BusinessException.of(userRepository.existsByEmail(email)
+                    ? ErrorCode.ALREADY_VERIFIED
+                    : ErrorCode.USER_NOT_FOUND);
+        }
+        userDetailsCache.invalidate(email);
+        primaryReadPinning.pin(email);
+
+        log.info(LogEvents.USER_ACTIVATED, "User {} email verified and account enabled.", emailHasher.hashed(email));
+    }
+
+    public OtpSendResultDto ignoredResult(Instant now) {
+        return OtpSendResultDto.builder()
+                .cooldownSeconds(resendCooldown.getSeconds())
+                .cooldownUntil(now.plus(resendCooldown))
+                .otpStatus("ignored")
+                .build();
+    }
+
+    public OtpSendResultDto result(SendStep step, Instant now) {
+        Instant cooldownUntil = step.next().getCooldownUntil();
+        long remaining = cooldownUntil != null
+                ? Math.max(0, cooldownUntil.getEpochSecond() - now.getEpochSecond())
+                : resendCooldown.getSeconds();
+        return OtpSendResultDto.builder()
+                .cooldownSeconds(remaining)
+                .cooldownUntil(cooldownUntil)
+                .otpStatus(step.isResend() ? "resent" : "generated")
+                .build();
+    }
+
+    private static void enforceCooldown(OtpState state, Instant now) {
+        if (!state.inCooldown(now)) {
+            return;
+        }
+        long retryAfter = state.getCooldownUntil().getEpochSecond() - now.getEpochSecond();
+        throw new RateLimitExceededException((int) Math.max(1, retryAfter), state.getCooldownUntil());
+    }
+
+    private String generateCode() {
+        int value = secureRandom.nextInt(90_000_000) + 10_000_000;
+        return Integer.toString(value);
+    }
+
+    /**
+     * What to do with the stored state.
+     */
+    public enum Persist {
+        NONE, SAVE, DELETE
+    }
+
+    /**
+     * Store {@code next}, email {@code code}; if the email fails, restore {@code previous} for a resend or delete
+     * the new code otherwise.
+     */
+    public record SendStep(OtpState next, OtpState previous, String code) {
+
+        public boolean isResend() {
+            return previous != null;
+        }
+    }
+
+    /**
+     * Apply {@code persist} (saving {@code state} for {@link Persist#SAVE}), then fail with {@code failure}, activate
+     * the account, or answer with {@code resetToken}.
+     */
+    public record VerifyStep(Persist persist, OtpState state, ErrorCode failure, boolean activate, String resetToken) {
+
+        static VerifyStep failed(Persist persist, OtpState state, ErrorCode failure) {
+            return new VerifyStep(persist, state, failure, false, null);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.easyshop.auth.service.impl;
+
+import com.easyshop.auth.exception.BusinessException;
+import com.easyshop.auth.exception.ErrorCode;
+import com.easyshop.auth.logging.EmailHasher;
+import com.easyshop.auth.logging.LogEvents;
+import com.easyshop.auth.model.dto.AuthDto;
+import com.easyshop.auth.model.dto.OtpSendResultDto;
+import com.easyshop.auth.model.dto.PasswordResetDto;
+import java.util.Locale;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Registration and password reset for the reactive endpoints. BCrypt and the JDBC writes run in
+ * {@link AuthService}'s transactions on the bounded blocking scheduler; the OTP part is reactive.
+ * <p>
+ * Unlike {@link AuthService#register(AuthDto)}, the user row is committed before the OTP is sent, so a failed
+ * email leaves an unverified registration that the next attempt resumes.
+ */
+@Slf4j
+public class ReactiveAuthService {
+
+    private final AuthService authService;
+    private final ReactiveOtpService otpService;
+    private final EmailHasher emailHasher;
+    private final Scheduler blockingScheduler;
+
+    public ReactiveAuthService(AuthService authService,
+                               ReactiveOtpService otpService,
+                               EmailHasher emailHasher,
+                               Scheduler blockingScheduler) {
+        this.authService = authService;
+        this.otpService = otpService;
+        this.emailHasher = emailHasher;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    public Mono<OtpSendResultDto> register(AuthDto dto, Locale locale) {
+        String email = dto.getEmail();
+        return Mono.fromCallable(() -> authService.persistRegistration(dto))
+                .subscribeOn(blockingScheduler)
+                .flatMap(resumed -> otpService.generateOtp(email, true, locale)
+                        .doOnSuccess(result -> {
+                            if (resumed) {
+                                log.info(LogEvents.REGISTRATION_RESUMED, "Registration resumed for {}.",
+                                        emailHasher.hashed(email));
+                            } else {
+                                log.info(LogEvents.REGISTRATION_STARTED, "Registration started for {}.",
+                                        emailHasher.hashed(email));
+                            }
+                        }));
+    }
+
+    public Mono<Void> resetPassword(PasswordResetDto request) {
+        if (!request.getPassword().equals(request.getConfirmPassword())) {
+            return Mono.error(BusinessException.of(ErrorCode.PASSWORDS_DO_NOT_MATCH));
+        }
+        return otpService.validateResetToken(request.getEmail(), request.getResetToken())
+                .then(Mono.fromRunnable(() -> authService.updatePassword(request.getEmail(), request.getPassword()))
+                        .subscribeOn(blockingScheduler))
+                .then();
+    }
+}
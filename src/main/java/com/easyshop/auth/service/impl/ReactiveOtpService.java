@@ -0,0 +1,184 @@
+package com.easyshop.auth.service.impl;
+
+import com.easyshop.auth.cache.RegisteredEmailFilter;
+import com.easyshop.auth.datasource.PrimaryReadPinning;
+import com.easyshop.auth.exception.BusinessException;
+import com.easyshop.auth.exception.ErrorCode;
+import com.easyshop.auth.exception.RateLimitExceededException;
+import com.easyshop.auth.logging.EmailHasher;
+import com.easyshop.auth.logging.LogEvents;
+import com.easyshop.auth.model.OtpState;
+import com.easyshop.auth.model.dto.OtpSendResultDto;
+import com.easyshop.auth.model.dto.VerifyCodeDto;
+import com.easyshop.auth.model.dto.VerifyCodeResponseDto;
+import com.easyshop.auth.repository.ReactiveOtpStateRepository;
+import com.easyshop.auth.repository.UserRepository;
+import com.easyshop.auth.service.EmailServiceInt;
+import com.easyshop.auth.service.impl.OtpTransitions.SendStep;
+import com.easyshop.auth.service.impl.OtpTransitions.VerifyStep;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.util.Locale;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import static com.easyshop.auth.exception.ErrorCode.PASSWORD_RESET_CODE_NOT_FOUND;
+
+/**
+ * The {@link OtpService} flows on reactive Redis. OTP state is read and written without holding a thread;
+ * JDBC runs on the bounded blocking scheduler and SMTP on the mail executor. The rules themselves come from
+ * {@link OtpTransitions}, shared with {@link OtpService}, and the same meters are recorded.
+ */
+@Slf4j
+public class ReactiveOtpService {
+
+    private final OtpTransitions transitions;
+    private final ReactiveOtpStateRepository otpStateRepository;
+    private final UserRepository userRepository;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final PrimaryReadPinning primaryReadPinning;
+    private final EmailServiceInt emailService;
+    private final EmailHasher emailHasher;
+    private final MeterRegistry meterRegistry;
+    private final Scheduler blockingScheduler;
+
+    public ReactiveOtpService(OtpTransitions transitions,
+                              ReactiveOtpStateRepository otpStateRepository,
+                              UserRepository userRepository,
+                              RegisteredEmailFilter registeredEmailFilter,
+                              PrimaryReadPinning primaryReadPinning,
+                              EmailServiceInt emailService,
+                              EmailHasher emailHasher,
+                              MeterRegistry meterRegistry,
+                              Scheduler blockingScheduler) {
+        this.transitions = transitions;
+        this.otpStateRepository = otpStateRepository;
+        this.userRepository = userRepository;
+        this.registeredEmailFilter = registeredEmailFilter;
+        this.primaryReadPinning = primaryReadPinning;
+        this.emailService = emailService;
+        this.emailHasher = emailHasher;
+        this.meterRegistry = meterRegistry;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    public Mono<OtpSendResultDto> generateOtp(String email, boolean forceResend, Locale locale) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return send(email, forceResend, locale)
+                    .doOnSuccess(result -> sample.stop(
+                            meterRegistry.timer("auth.otp.send", "outcome", result.getOtpStatus())))
+                    .doOnError(ex -> sample.stop(meterRegistry.timer("auth.otp.send", "outcome",
+                            ex instanceof RateLimitExceededException ? "cooldown" : "error")));
+        });
+    }
+
+    /**
+     * Completes empty for the registration flow and with the reset token for the forgot-password flow.
+     */
+    public Mono<VerifyCodeResponseDto> verifyOtp(VerifyCodeDto dto) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return verify(dto)
+                    .doOnSuccess(response -> sample.stop(
+                            meterRegistry.timer("auth.otp.verify", "outcome", "success")))
+                    .doOnError(ex -> sample.stop(meterRegistry.timer("auth.otp.verify", "outcome",
+                            ex instanceof BusinessException business
+                                    ? business.getErrorCode().name().toLowerCase(Locale.ROOT)
+                                    : "error")));
+        });
+    }
+
+    public Mono<Void> validateResetToken(String email, String resetToken) {
+        return otpStateRepository.findOrThrow(email, PASSWORD_RESET_CODE_NOT_FOUND)
+                .flatMap(state -> {
+                    ErrorCode failure = transitions.resetTokenFailure(state, resetToken, Instant.now());
+                    // The token is single-use whatever the outcome
+                    Mono<Void> consumed = otpStateRepository.delete(email);
+                    return failure == null
+                            ? consumed
+                            : consumed.then(Mono.<Void>error(BusinessException.of(failure)));
+                });
+    }
+
+    private Mono<OtpSendResultDto> send(String email, boolean forceResend, Locale locale) {
+        // If user does not exist, do not send anything (avoid enumeration/spam)
+        Instant now = Instant.now();
+        return isRegistered(email).flatMap(registered -> {
+            if (!registered) {
+                return Mono.just(transitions.ignoredResult(now));
+            }
+            return otpStateRepository.load(email)
+                    .defaultIfEmpty(OtpState.empty())
+                    .flatMap(otp -> sendFor(email, transitions.send(otp, forceResend, now), locale, now));
+        });
+    }
+
+    private Mono<OtpSendResultDto> sendFor(String email, SendStep step, Locale locale, Instant now) {
+        return otpStateRepository.save(email, step.next(), now)
+                .then(sendEmail(email, step.code(), locale)
+                        .onErrorResume(ex -> {
+                            if (step.isResend()) {
+                                log.warn("Failed to resend OTP to email {}", emailHasher.hashed(email), ex);
+                                return otpStateRepository.save(email, step.previous(), now).then(Mono.<Void>error(ex));
+                            }
+                            log.warn("Failed to send OTP to email {}", emailHasher.hashed(email), ex);
+                            return otpStateRepository.delete(email).then(Mono.<Void>error(ex));
+                        }))
+                .then(Mono.fromSupplier(() -> {
+                    if (step.isResend()) {
+                        log.info(LogEvents.OTP_RESENT, "OTP re-sent for {}", emailHasher.hashed(email));
+                    } else {
+                        log.info(LogEvents.OTP_GENERATED, "OTP generated for {}", emailHasher.hashed(email));
+                    }
+                    return transitions.result(step, Instant.now());
+                }));
+    }
+
+    private Mono<VerifyCodeResponseDto> verify(VerifyCodeDto dto) {
+        Instant now = Instant.now();
+        String email = dto.getEmail();
+        return otpStateRepository.findOrThrow(email, ErrorCode.VERIFICATION_CODE_NOT_FOUND).flatMap(state -> {
+            VerifyStep step = transitions.verify(state, dto, now);
+            Mono<Void> persisted = switch (step.persist()) {
+                case SAVE -> otpStateRepository.save(email, step.state(), now);
+                case DELETE -> otpStateRepository.delete(email);
+                case NONE -> Mono.empty();
+            };
+            if (step.failure() != null) {
+                return persisted.then(Mono.<VerifyCodeResponseDto>error(BusinessException.of(step.failure())));
+            }
+
+            // registration flow
+            if (step.activate()) {
+                return persisted
+                        .then(Mono.fromRunnable(
+                                        () -> PrimaryReadPinning.runOnPrimary(() -> transitions.activate(email)))
+                                .subscribeOn(blockingScheduler))
+                        .then(Mono.<VerifyCodeResponseDto>empty());
+            }
+
+            // reset password flow
+            return persisted
+                    .then(Mono.fromSupplier(() -> {
+                        log.info(LogEvents.OTP_VERIFIED, "OTP verified for {}. Reset token issued.",
+                                emailHasher.hashed(email));
+                        return new VerifyCodeResponseDto(step.resetToken());
+                    }));
+        });
+    }
+
+    private Mono<Boolean> isRegistered(String email) {
+        if (!registeredEmailFilter.mightBeRegistered(email)) {
+            return Mono.just(false);
+        }
+        return Mono.fromCallable(() -> primaryReadPinning.read(email, () -> userRepository.existsByEmail(email)))
+                .subscribeOn(blockingScheduler);
+    }
+
+    private Mono<Void> sendEmail(String email, String code, Locale locale) {
+        return Mono.fromFuture(() -> emailService.sendVerificationEmailAsync(email, code, locale));
+    }
+}
@@ -0,0 +1,88 @@
+package com.easyshop.auth.tracing;
+
+import com.easyshop.auth.exception.BusinessException;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Opens child spans around the steps of the auth flows (hashing, persistence, Redis, SMTP, signing).
+ * Span names are dotted lowercase, {@code <area>.<step>}, such as {@code otp.send} or {@code smtp.send}.
+ * <p>
+ * Spans join the current trace, which the HTTP server observation continues from the gateway's
+ * {@code traceparent} header. When the trace is not sampled the span is a no-op and the step runs
+ * without any tracing work beyond the sampling check.
+ */
+public class AuthTracer {
+
+    public static final AuthTracer NOOP = new AuthTracer(Tracer.NOOP);
+
+    private final Tracer tracer;
+
+    public AuthTracer(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    public <T> T inSpan(String name, Supplier<T> step) {
+        Span span = tracer.nextSpan().name(name);
+        if (span.isNoop()) {
+            return step.get();
+        }
+        span.start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return step.get();
+        } catch (RuntimeException | Error ex) {
+            recordFailure(span, ex);
+            throw ex;
+        } finally {
+            span.end();
+        }
+    }
+
+    public void inSpan(String name, Runnable step) {
+        inSpan(name, () -> {
+            step.run();
+            return null;
+        });
+    }
+
+    /**
+     * Span for a single Redis command ({@code redis.get}), tagged after the OpenTelemetry database conventions.
+     */
+    public <T> T redis(String command, String keyspace, Supplier<T> call) {
+        Span span = tracer.nextSpan().name("redis." + command.toLowerCase(Locale.ROOT));
+        if (span.isNoop()) {
+            return call.get();
+        }
+        span.kind(Span.Kind.CLIENT)
+                .tag("db.system", "redis")
+                .tag("db.operation", command)
+                .tag("easyshop.redis.keyspace", keyspace)
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return call.get();
+        } catch (RuntimeException | Error ex) {
+            recordFailure(span, ex);
+            throw ex;
+        } finally {
+            span.end();
+        }
+    }
+
+    public void redis(String command, String keyspace, Runnable call) {
+        redis(command, keyspace, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private static void recordFailure(Span span, Throwable ex) {
+        // Expected rejections (bad code, cooldown, duplicate email) are tagged, not reported as span errors
+        if (ex instanceof BusinessException business && !business.getErrorCode().getHttpStatus().is5xxServerError()) {
+            span.tag("easyshop.error_code", business.getErrorCode().name());
+            return;
+        }
+        span.error(ex);
+    }
+}
@@ -0,0 +1,248 @@
+package com.easyshop.auth.warmup;
+
+import com.easyshop.auth.model.OtpState;
+import com.easyshop.auth.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+/**
+ * Exercises the hot request paths once the application is ready, so the JIT, template caches and connection
+ * pools are warm before the instance reports ready on {@code /readyz}.
+ * <p>
+ * Runs on its own thread; a failing step is logged and skipped so a broken dependency cannot keep the
+ * instance out of rotation forever (the health checks report that separately).
+ */
+@Slf4j
+@Component
+public class StartupWarmup {
+
+    private static final String WARMUP_EMAIL = "warmup@warmup.invalid";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final RegisteredClientRepository registeredClientRepository;
+    private final UserRepository userRepository;
+    private final TemplateEngine templateEngine;
+    private final JWKSource<SecurityContext> jwkSource;
+    private final JwtDecoder jwtDecoder;
+    private final RedisTemplate<String, String> redis;
+    private final ObjectProvider<HikariDataSource> hikariPools;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final int iterations;
+    private final int bcryptIterations;
+
+    private volatile boolean complete;
+
+    public StartupWarmup(PasswordEncoder passwordEncoder,
+                         ObjectMapper objectMapper,
+                         RegisteredClientRepository registeredClientRepository,
+                         UserRepository userRepository,
+                         TemplateEngine templateEngine,
+                         JWKSource<SecurityContext> jwkSource,
+                         JwtDecoder jwtDecoder,
+                         RedisTemplate<String, String> redis,
+                         ObjectProvider<HikariDataSource> hikariPools,
+                         MeterRegistry meterRegistry,
+                         @Value("${easyshop.auth.warmup.enabled:true}") boolean enabled,
+                         @Value("${easyshop.auth.warmup.iterations:200}") int iterations,
+                         @Value("${easyshop.auth.warmup.bcrypt-iterations:20}") int bcryptIterations) {
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.registeredClientRepository = registeredClientRepository;
+        this.userRepository = userRepository;
+        this.templateEngine = templateEngine;
+        this.jwkSource = jwkSource;
+        this.jwtDecoder = jwtDecoder;
+        this.redis = redis;
+        this.hikariPools = hikariPools;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.iterations = Math.max(iterations, 1);
+        this.bcryptIterations = Math.max(bcryptIterations, 1);
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!enabled) {
+            complete = true;
+            return;
+        }
+        Thread thread = new Thread(() -> run(event.getApplicationContext()), "auth-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run(ApplicationContext context) {
+        long started = System.nanoTime();
+        try {
+            step("connection-pools", this::fillConnectionPools);
+            step("redis", this::pingRedis);
+            step("bcrypt", this::hashPasswords);
+            step("otp-state-json", this::roundTripOtpState);
+            step("client-lookup", this::loadClients);
+            step("user-lookup", this::lookUpUser);
+            step("email-template", this::renderEmailTemplate);
+            step("jwt", this::signAndVerifyJwt);
+            if (context instanceof WebServerApplicationContext webContext) {
+                step("http", () -> callLocalEndpoints(webContext.getWebServer().getPort()));
+            }
+        } finally {
+            complete = true;
+            long nanos = System.nanoTime() - started;
+            Timer.builder("auth.warmup.duration").register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+            log.info("Warm-up finished in {} ms, instance is ready.", nanos / 1_000_000);
+        }
+    }
+
+    private void step(String name, WarmupStep action) {
+        long started = System.nanoTime();
+        try {
+            action.run();
+            log.debug("Warm-up step {} took {} ms.", name, (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception ex) {
+            log.warn("Warm-up step {} failed: {}", name, ex.toString());
+        }
+    }
+
+    private void fillConnectionPools() throws SQLException {
+        for (HikariDataSource pool : hikariPools) {
+            // Borrowing minimumIdle connections at once forces the pool to open them now
+            List<Connection> borrowed = new ArrayList<>();
+            try {
+                for (int i = 0; i < Math.max(pool.getMinimumIdle(), 1); i++) {
+                    Connection connection = pool.getConnection();
+                    borrowed.add(connection);
+                    connection.isValid(1);
+                }
+            } finally {
+                for (Connection connection : borrowed) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    private void pingRedis() {
+        for (int i = 0; i < iterations; i++) {
+            redis.execute(RedisConnection::ping, true);
+        }
+    }
+
+    private void hashPasswords() {
+        String hash = passwordEncoder.encode("Warm-up-Passw0rd!");
+        for (int i = 0; i < bcryptIterations; i++) {
+            passwordEncoder.matches("Warm-up-Passw0rd!", hash);
+        }
+    }
+
+    private void roundTripOtpState() throws Exception {
+        Instant now = Instant.now();
+        OtpState state = OtpState.empty()
+                .startOtp("12345678", now, Duration.ofMinutes(5), Duration.ofSeconds(60))
+                .issueResetToken("00000000-0000-4000-8000-000000000000", now.plusSeconds(600));
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.readValue(objectMapper.writeValueAsString(state), OtpState.class);
+        }
+    }
+
+    private void loadClients() {
+        for (int i = 0; i < iterations; i++) {
+            registeredClientRepository.findByClientId("webapp");
+            registeredClientRepository.findByClientId("gateway");
+        }
+    }
+
+    private void lookUpUser() {
+        for (int i = 0; i < iterations; i++) {
+            userRepository.findByEmail(WARMUP_EMAIL);
+        }
+    }
+
+    private void renderEmailTemplate() {
+        for (int i = 0; i < iterations; i++) {
+            Context context = new Context(Locale.ENGLISH);
+            context.setVariable("verificationCode", "12345678");
+            templateEngine.process("email/otp-verification", context);
+        }
+    }
+
+    private void signAndVerifyJwt() {
+        NimbusJwtEncoder encoder = new NimbusJwtEncoder(jwkSource);
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256).build();
+        for (int i = 0; i < iterations; i++) {
+            Instant now = Instant.now();
+            JwtClaimsSet claims = JwtClaimsSet.builder()
+                    .subject(WARMUP_EMAIL)
+                    .issuedAt(now)
+                    .expiresAt(now.plusSeconds(60))
+                    .claims(c -> c.putAll(Map.of("roles", List.of("USER"), "preferred_username", WARMUP_EMAIL)))
+                    .build();
+            Jwt jwt = encoder.encode(JwtEncoderParameters.from(header, claims));
+            jwtDecoder.decode(jwt.getTokenValue());
+        }
+    }
+
+    // Goes through Tomcat, the security filter chains and the login template, which nothing else above touches
+    private void callLocalEndpoints(int port) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        List<String> paths = List.of("/login", "/oauth2/jwks", "/.well-known/openid-configuration");
+        for (int i = 0; i < Math.max(iterations / 10, 1); i++) {
+            for (String path : paths) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                        .timeout(Duration.ofSeconds(5))
+                        .GET()
+                        .build();
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface WarmupStep {
+        void run() throws Exception;
+    }
+}
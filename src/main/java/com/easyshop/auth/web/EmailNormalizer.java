@@ -0,0 +1,72 @@
+package com.easyshop.auth.web;
+
+import java.util.Locale;
+
+/**
+ * Canonical form of an email address: surrounding whitespace removed, lower-cased with {@link Locale#ROOT}.
+ * Input that is already canonical is returned as is; ASCII input is lowered in a single copy.
+ */
+public final class EmailNormalizer {
+
+    private EmailNormalizer() {
+    }
+
+    public static String normalize(String email) {
+        if (email == null) {
+            return "";
+        }
+        int length = email.length();
+        int start = 0;
+        int end = length;
+        while (start < end && email.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && email.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        boolean lowered = false;
+        for (int i = start; i < end && !lowered; i++) {
+            lowered = needsLowering(email.charAt(i));
+        }
+        if (!lowered) {
+            return start == 0 && end == length ? email : email.substring(start, end);
+        }
+        return email.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Normalizes {@code length} characters of {@code buffer} starting at {@code offset}; the buffer is not modified.
+     */
+    public static String normalize(char[] buffer, int offset, int length) {
+        int start = offset;
+        int end = offset + length;
+        while (start < end && buffer[start] <= ' ') {
+            start++;
+        }
+        while (end > start && buffer[end - 1] <= ' ') {
+            end--;
+        }
+        boolean upperAscii = false;
+        for (int i = start; i < end; i++) {
+            char c = buffer[i];
+            if (c >= 0x80) {
+                // Non-ASCII case mapping is left to the JDK
+                return new String(buffer, start, end - start).toLowerCase(Locale.ROOT);
+            }
+            upperAscii |= c >= 'A' && c <= 'Z';
+        }
+        if (!upperAscii) {
+            return new String(buffer, start, end - start);
+        }
+        char[] lowered = new char[end - start];
+        for (int i = start; i < end; i++) {
+            char c = buffer[i];
+            lowered[i - start] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return new String(lowered);
+    }
+
+    private static boolean needsLowering(char c) {
+        return (c >= 'A' && c <= 'Z') || c >= 0x80;
+    }
+}
@@ -0,0 +1,21 @@
+package com.easyshop.auth.web;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Trims and lower-cases an email field while the request body is deserialized.
+ * <p>
+ * Jackson resolves the deserializer once per DTO type and caches it, so normalization costs nothing beyond
+ * reading the field. An explicit JSON {@code null} becomes an empty string, which {@code @NotBlank} rejects.
+ */
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+@JacksonAnnotationsInside
+@JsonDeserialize(using = NormalizedEmailDeserializer.class)
+public @interface NormalizedEmail {
+}
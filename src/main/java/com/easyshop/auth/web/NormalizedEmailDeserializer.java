@@ -0,0 +1,36 @@
+package com.easyshop.auth.web;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import java.io.IOException;
+
+/**
+ * Backs {@link NormalizedEmail}. JSON strings are normalized straight from the parser's character buffer,
+ * so the raw value is never materialized as a separate string.
+ */
+public class NormalizedEmailDeserializer extends StdScalarDeserializer<String> {
+
+    public NormalizedEmailDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.hasToken(JsonToken.VALUE_STRING)) {
+            return EmailNormalizer.normalize(
+                    parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+        String value = parser.getValueAsString();
+        if (value == null) {
+            return (String) context.handleUnexpectedToken(String.class, parser);
+        }
+        return EmailNormalizer.normalize(value);
+    }
+
+    @Override
+    public String getNullValue(DeserializationContext context) {
+        return "";
+    }
+}
@@ -0,0 +1,39 @@
+-- Consolidated auth schema as of V7, used only for fresh installs (see FlywayConfig).
+-- Not a Flyway migration: existing databases keep upgrading through db/migration/V1-V7.
+-- Keep in sync with the result of applying db/migration up to V7.
+
+CREATE SCHEMA IF NOT EXISTS auth;
+
+CREATE TABLE IF NOT EXISTS auth.user (
+  id                      BIGSERIAL PRIMARY KEY,
+  email                   VARCHAR(255) NOT NULL UNIQUE,
+  password                VARCHAR(255) NOT NULL,
+  role                    TEXT NOT NULL DEFAULT 'USER',
+  created_at              TIMESTAMPTZ NOT NULL DEFAULT now(),
+  enabled                 BOOLEAN NOT NULL DEFAULT true,
+  account_non_expired     BOOLEAN NOT NULL DEFAULT true,
+  account_non_locked      BOOLEAN NOT NULL DEFAULT true,
+  credentials_non_expired BOOLEAN NOT NULL DEFAULT true,
+  updated_at              TIMESTAMPTZ,
+  -- username always mirrors email
+  username                VARCHAR(255) GENERATED ALWAYS AS (email) STORED,
+  CONSTRAINT ck_user_email_canonical CHECK (email = lower(btrim(email)))
+);
+
+-- Unverified accounts are a small slice of the table, scanned only by the cleanup job
+CREATE INDEX IF NOT EXISTS idx_user_unverified_created_at
+  ON auth.user(created_at) WHERE enabled = false;
+
+CREATE TABLE IF NOT EXISTS auth.oauth2_clients (
+  id                            BIGSERIAL PRIMARY KEY,
+  client_id                     VARCHAR(255) NOT NULL UNIQUE,
+  client_secret                 VARCHAR(255),
+  client_authentication_methods TEXT NOT NULL,
+  authorization_grant_types     TEXT NOT NULL,
+  redirect_uris                 TEXT,
+  scopes                        TEXT NOT NULL,
+  client_settings               TEXT,
+  token_settings                TEXT,
+  created_at                    TIMESTAMPTZ NOT NULL DEFAULT now(),
+  updated_at                    TIMESTAMPTZ
+);
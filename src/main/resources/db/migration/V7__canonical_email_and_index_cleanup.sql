@@ -0,0 +1,32 @@
+-- Enforce the canonical (trimmed, lower-case) email form in the database and drop redundant indexes.
+-- The application already normalizes emails; this makes the invariant hold for every writer.
+
+-- Abort early if normalizing would merge two accounts; those have to be resolved by hand.
+DO $$
+BEGIN
+  IF EXISTS (
+    SELECT lower(btrim(email)) FROM auth.user GROUP BY lower(btrim(email)) HAVING count(*) > 1
+  ) THEN
+    RAISE EXCEPTION 'auth.user contains emails that differ only by case or whitespace';
+  END IF;
+END $$;
+
+UPDATE auth.user SET email = lower(btrim(email)) WHERE email <> lower(btrim(email));
+
+ALTER TABLE auth.user
+  ADD CONSTRAINT ck_user_email_canonical CHECK (email = lower(btrim(email)));
+
+-- The UNIQUE constraint on email already provides a B-tree index
+DROP INDEX IF EXISTS auth.idx_user_email;
+
+-- username always mirrors email; derive it instead of maintaining a second unique index.
+-- Dropping the column also drops uk_user_username.
+ALTER TABLE auth.user DROP COLUMN username;
+ALTER TABLE auth.user ADD COLUMN username VARCHAR(255) GENERATED ALWAYS AS (email) STORED;
+
+-- The UNIQUE constraint on client_id already provides a B-tree index
+DROP INDEX IF EXISTS auth.idx_oauth2_clients_client_id;
+
+-- Unverified accounts are a small slice of the table, scanned only by the cleanup job
+CREATE INDEX IF NOT EXISTS idx_user_unverified_created_at
+  ON auth.user(created_at) WHERE enabled = false;
@@ -0,0 +1,58 @@
+package com.easyshop.auth.cache;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+
+        assertThat(filter.mightContain("user@example.com")).isFalse();
+        assertThat(filter.mightContain("")).isFalse();
+    }
+
+    @Test
+    void neverForgetsAnInsertedValue() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put(email(i)));
+
+        assertThat(IntStream.range(0, 10_000)).allMatch(i -> filter.mightContain(email(i)));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRate() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put(email(i)));
+
+        long falsePositives = IntStream.range(10_000, 110_000)
+                .filter(i -> filter.mightContain(email(i)))
+                .count();
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void concurrentInsertsAreAllVisible() {
+        BloomFilter filter = BloomFilter.create(50_000, 0.01);
+
+        IntStream.range(0, 50_000).parallel().forEach(i -> filter.put(email(i)));
+
+        assertThat(IntStream.range(0, 50_000)).allMatch(i -> filter.mightContain(email(i)));
+    }
+
+    @Test
+    void degenerateSettingsStillGiveAWorkingFilter() {
+        BloomFilter filter = BloomFilter.create(0, 2.0);
+        filter.put("user@example.com");
+
+        assertThat(filter.mightContain("user@example.com")).isTrue();
+    }
+
+    private static String email(int i) {
+        return "user-" + i + "@example.com";
+    }
+}
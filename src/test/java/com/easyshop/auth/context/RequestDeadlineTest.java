@@ -0,0 +1,74 @@
+package com.easyshop.auth.context;
+
+import com.easyshop.auth.exception.BusinessException;
+import com.easyshop.auth.exception.ErrorCode;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestDeadlineTest {
+
+    @AfterEach
+    void unbind() {
+        RequestDeadline.exit(null);
+    }
+
+    @Test
+    void withoutADeadlineEveryCheckPasses() {
+        assertThat(RequestDeadline.remainingNanos()).isEqualTo(Long.MAX_VALUE);
+        assertThat(RequestDeadline.isExpired()).isFalse();
+        assertThatCode(RequestDeadline::check).doesNotThrowAnyException();
+    }
+
+    @Test
+    void reportsTheBudgetLeftBeforeTheDeadline() {
+        long budget = TimeUnit.SECONDS.toNanos(5);
+        RequestDeadline.enter(System.nanoTime() + budget);
+
+        assertThat(RequestDeadline.remainingNanos()).isPositive().isLessThanOrEqualTo(budget);
+        assertThat(RequestDeadline.isExpired()).isFalse();
+        assertThatCode(RequestDeadline::check).doesNotThrowAnyException();
+    }
+
+    @Test
+    void checkFailsWith504OncePassed() {
+        RequestDeadline.enter(System.nanoTime() - 1);
+
+        assertThat(RequestDeadline.isExpired()).isTrue();
+        assertThatThrownBy(RequestDeadline::check)
+                .isInstanceOfSatisfying(BusinessException.class,
+                        ex -> assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.DEADLINE_EXCEEDED));
+    }
+
+    @Test
+    void exitRestoresTheOuterDeadline() {
+        long outer = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        Long none = RequestDeadline.enter(outer);
+        Long previous = RequestDeadline.enter(System.nanoTime() - 1);
+        assertThat(RequestDeadline.isExpired()).isTrue();
+
+        RequestDeadline.exit(previous);
+        assertThat(previous).isEqualTo(outer);
+        assertThat(RequestDeadline.isExpired()).isFalse();
+
+        RequestDeadline.exit(none);
+        assertThat(none).isNull();
+        assertThat(RequestDeadline.remainingNanos()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void deadlineIsBoundToTheCurrentThreadOnly() throws InterruptedException {
+        RequestDeadline.enter(System.nanoTime() - 1);
+        long[] remainingElsewhere = new long[1];
+
+        Thread other = new Thread(() -> remainingElsewhere[0] = RequestDeadline.remainingNanos());
+        other.start();
+        other.join();
+
+        assertThat(remainingElsewhere[0]).isEqualTo(Long.MAX_VALUE);
+    }
+}
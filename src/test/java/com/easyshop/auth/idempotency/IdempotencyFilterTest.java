@@ -0,0 +1,257 @@
+package com.easyshop.auth.idempotency;
+
+import com.easyshop.auth.exception.BusinessException;
+import com.easyshop.auth.exception.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class IdempotencyFilterTest {
+
+    private static final String SECRET = "test-secret";
+    private static final String PATH = "/api/auth/register";
+    private static final String KEY = IdempotencyStore.key(PATH, "key-1");
+    private static final String BODY = "{\"email\":\"user@example.com\",\"password\":\"S3cret!\"}";
+    private static final String CLAIM = "claim-1";
+
+    private IdempotencyStore store;
+    private HandlerExceptionResolver exceptionResolver;
+    private AtomicInteger handlerRuns;
+
+    @BeforeEach
+    void setUp() {
+        store = mock(IdempotencyStore.class);
+        exceptionResolver = mock(HandlerExceptionResolver.class);
+        handlerRuns = new AtomicInteger();
+    }
+
+    @Test
+    void requestWithoutAKeyIsNotTouched() throws Exception {
+        MockHttpServletRequest request = request(BODY);
+        request.removeHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER);
+
+        filter(1_000).doFilter(request, new MockHttpServletResponse(), handler(201));
+
+        assertThat(handlerRuns).hasValue(1);
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void staysOffWithoutAFingerprintSecret() throws Exception {
+        IdempotencyFilter filter = new IdempotencyFilter(store, exceptionResolver, new SimpleMeterRegistry(),
+                true, "", PATH, 3600, 30, 1_000, 1);
+
+        filter.doFilter(request(BODY), new MockHttpServletResponse(), handler(201));
+
+        assertThat(handlerRuns).hasValue(1);
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void firstRequestRunsAndStoresItsResponse() throws Exception {
+        when(store.find(KEY)).thenReturn(Optional.empty());
+        when(store.tryStart(eq(KEY), eq(fingerprint(BODY)), any(Duration.class))).thenReturn(CLAIM);
+        when(store.complete(eq(KEY), eq(CLAIM), any(IdempotencyRecord.class), any(Duration.class))).thenReturn(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter(1_000).doFilter(request(BODY), response, handler(201));
+
+        ArgumentCaptor<IdempotencyRecord> stored = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(store).complete(eq(KEY), eq(CLAIM), stored.capture(), eq(Duration.ofSeconds(3600)));
+        assertThat(stored.getValue().status()).isEqualTo(201);
+        assertThat(stored.getValue().body()).isEqualTo("{\"ok\":true}");
+        assertThat(stored.getValue().headers()).containsEntry(HttpHeaders.LOCATION, "/users/1");
+        assertThat(stored.getValue().claim()).isNull();
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getContentAsString()).isEqualTo("{\"ok\":true}");
+        assertThat(handlerRuns).hasValue(1);
+        verify(store, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void completedResponseIsReplayedWithoutRunningTheHandler() throws Exception {
+        when(store.find(KEY)).thenReturn(Optional.of(completed(fingerprint(BODY))));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter(1_000).doFilter(request(BODY), response, handler(500));
+
+        assertThat(handlerRuns).hasValue(0);
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(response.getHeader(HttpHeaders.LOCATION)).isEqualTo("/users/1");
+        assertThat(response.getContentType()).startsWith("application/json");
+        assertThat(response.getContentAsString()).isEqualTo("{\"ok\":true}");
+    }
+
+    @Test
+    void keyReusedWithADifferentBodyIsRejected() throws Exception {
+        when(store.find(KEY)).thenReturn(Optional.of(completed(fingerprint("{\"email\":\"other@example.com\"}"))));
+
+        filter(1_000).doFilter(request(BODY), new MockHttpServletResponse(), handler(201));
+
+        assertThat(handlerRuns).hasValue(0);
+        verifyResolved(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+    }
+
+    @Test
+    void duplicateWaitsForTheInFlightResponse() throws Exception {
+        String fingerprint = fingerprint(BODY);
+        when(store.find(KEY)).thenReturn(
+                Optional.of(IdempotencyRecord.pending(fingerprint, CLAIM)),
+                Optional.of(IdempotencyRecord.pending(fingerprint, CLAIM)),
+                Optional.of(completed(fingerprint)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter(5_000).doFilter(request(BODY), response, handler(500));
+
+        assertThat(handlerRuns).hasValue(0);
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        verify(store, never()).tryStart(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void duplicateRunsTheRequestItselfWhenTheFirstReleasesTheKey() throws Exception {
+        String fingerprint = fingerprint(BODY);
+        when(store.find(KEY)).thenReturn(Optional.of(IdempotencyRecord.pending(fingerprint, "other-claim")),
+                Optional.empty());
+        when(store.tryStart(eq(KEY), eq(fingerprint), any(Duration.class))).thenReturn(CLAIM);
+        when(store.complete(eq(KEY), eq(CLAIM), any(IdempotencyRecord.class), any(Duration.class))).thenReturn(true);
+
+        filter(5_000).doFilter(request(BODY), new MockHttpServletResponse(), handler(201));
+
+        assertThat(handlerRuns).hasValue(1);
+    }
+
+    @Test
+    void duplicateGets409WithRetryAfterOnceTheWaitRunsOut() throws Exception {
+        when(store.find(KEY)).thenReturn(Optional.of(IdempotencyRecord.pending(fingerprint(BODY), CLAIM)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter(100).doFilter(request(BODY), response, handler(201));
+
+        assertThat(handlerRuns).hasValue(0);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        verifyResolved(ErrorCode.IDEMPOTENCY_REQUEST_IN_PROGRESS);
+    }
+
+    @Test
+    void serverErrorReleasesOnlyItsOwnClaim() throws Exception {
+        when(store.find(KEY)).thenReturn(Optional.empty());
+        when(store.tryStart(eq(KEY), anyString(), any(Duration.class))).thenReturn(CLAIM);
+
+        filter(1_000).doFilter(request(BODY), new MockHttpServletResponse(), handler(503));
+
+        verify(store).release(KEY, CLAIM);
+        verify(store, never()).complete(anyString(), anyString(), any(IdempotencyRecord.class), any(Duration.class));
+    }
+
+    @Test
+    void expiredClaimIsReleasedRatherThanOverwritten() throws Exception {
+        when(store.find(KEY)).thenReturn(Optional.empty());
+        when(store.tryStart(eq(KEY), anyString(), any(Duration.class))).thenReturn(CLAIM);
+        when(store.complete(eq(KEY), eq(CLAIM), any(IdempotencyRecord.class), any(Duration.class))).thenReturn(false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter(1_000).doFilter(request(BODY), response, handler(201));
+
+        verify(store).release(KEY, CLAIM);
+        assertThat(response.getStatus()).isEqualTo(201);
+    }
+
+    @Test
+    void redisFailureFailsOpen() throws Exception {
+        when(store.find(KEY)).thenThrow(new QueryTimeoutException("Redis down"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter(1_000).doFilter(request(BODY), response, handler(201));
+
+        assertThat(handlerRuns).hasValue(1);
+        assertThat(response.getStatus()).isEqualTo(201);
+    }
+
+    @Test
+    void malformedKeyIsRejected() throws Exception {
+        MockHttpServletRequest request = request(BODY);
+        request.removeHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER);
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "has space");
+
+        filter(1_000).doFilter(request, new MockHttpServletResponse(), handler(201));
+
+        assertThat(handlerRuns).hasValue(0);
+        verifyResolved(ErrorCode.IDEMPOTENCY_KEY_INVALID);
+        verifyNoInteractions(store);
+    }
+
+    private IdempotencyFilter filter(long waitTimeoutMs) {
+        return new IdempotencyFilter(store, exceptionResolver, new SimpleMeterRegistry(),
+                true, SECRET, PATH, 3600, 30, waitTimeoutMs, 1);
+    }
+
+    private static MockHttpServletRequest request(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", PATH);
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-1");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    /**
+     * Stands in for the controller: answers {@code status} with a small JSON body and a {@code Location} header.
+     */
+    private FilterChain handler(int status) {
+        return (request, response) -> {
+            handlerRuns.incrementAndGet();
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setStatus(status);
+            http.setHeader(HttpHeaders.LOCATION, "/users/1");
+            http.setContentType("application/json");
+            http.getWriter().write("{\"ok\":true}");
+        };
+    }
+
+    private static IdempotencyRecord completed(String fingerprint) {
+        return IdempotencyRecord.completed(fingerprint, 201, "application/json",
+                Map.of(HttpHeaders.LOCATION, "/users/1"), "{\"ok\":true}");
+    }
+
+    private void verifyResolved(ErrorCode errorCode) {
+        verify(exceptionResolver).resolveException(any(), any(), isNull(),
+                argThat(ex -> ex instanceof BusinessException business && business.getErrorCode() == errorCode));
+    }
+
+    private static String fingerprint(String body) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,109 @@
+package com.easyshop.auth.limiter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientConcurrencyLimitTest {
+
+    private static final long STEADY_RTT = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW_RTT = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    void admitsUpToTheLimitThenRejectsWithoutAQueue() throws InterruptedException {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(2, 1, 10, 0, 0.2, 1000);
+
+        assertThat(limit.tryAcquire(0)).isTrue();
+        assertThat(limit.tryAcquire(0)).isTrue();
+        assertThat(limit.tryAcquire(TimeUnit.SECONDS.toNanos(1))).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void queuedRequestTimesOutAndLeavesTheQueue() throws InterruptedException {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(1, 1, 10, 1, 0.2, 1000);
+        assertThat(limit.tryAcquire(0)).isTrue();
+
+        assertThat(limit.tryAcquire(TimeUnit.MILLISECONDS.toNanos(20))).isFalse();
+        assertThat(limit.getQueued()).isZero();
+        assertThat(limit.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void releaseHandsThePermitToAQueuedRequest() throws Exception {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(1, 1, 10, 1, 0.2, 1000);
+        assertThat(limit.tryAcquire(0)).isTrue();
+
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limit.tryAcquire(TimeUnit.SECONDS.toNanos(5));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        while (limit.getQueued() == 0) {
+            Thread.onSpinWait();
+        }
+        // A second waiter does not fit in the queue
+        assertThat(limit.tryAcquire(TimeUnit.SECONDS.toNanos(1))).isFalse();
+
+        limit.release(STEADY_RTT);
+
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(limit.getInFlight()).isEqualTo(1);
+        assertThat(limit.getQueued()).isZero();
+    }
+
+    @Test
+    void growsToTheMaximumWhileLatencyIsSteadyAndThePermitsAreUsed() throws InterruptedException {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(4, 1, 50, 0, 1.0, 1);
+
+        runRounds(limit, 30, STEADY_RTT);
+
+        assertThat(limit.getLimit()).isEqualTo(50);
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesButNotBelowTheMinimum() throws InterruptedException {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(40, 8, 40, 0, 1.0, 1);
+        runRounds(limit, 5, STEADY_RTT);
+        int before = limit.getLimit();
+
+        runRounds(limit, 5, SLOW_RTT);
+
+        assertThat(limit.getLimit()).isLessThan(before).isGreaterThanOrEqualTo(8);
+    }
+
+    @Test
+    void doesNotGrowWhileMostPermitsAreIdle() throws InterruptedException {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 1, 100, 0, 1.0, 1);
+
+        for (int i = 0; i < 30; i++) {
+            assertThat(limit.tryAcquire(0)).isTrue();
+            Thread.sleep(1);
+            limit.release(STEADY_RTT);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    /**
+     * Fills the whole limit each round and releases every permit with the same latency, one window per round.
+     */
+    private static void runRounds(GradientConcurrencyLimit limit, int rounds, long rttNanos)
+            throws InterruptedException {
+        for (int round = 0; round < rounds; round++) {
+            int permits = limit.getLimit();
+            for (int i = 0; i < permits; i++) {
+                assertThat(limit.tryAcquire(0)).isTrue();
+            }
+            Thread.sleep(2);
+            for (int i = 0; i < permits; i++) {
+                limit.release(rttNanos);
+            }
+        }
+    }
+}
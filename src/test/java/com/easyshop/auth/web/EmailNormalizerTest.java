@@ -0,0 +1,64 @@
+package com.easyshop.auth.web;
+
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailNormalizerTest {
+
+    @Test
+    void trimsAndLowerCases() {
+        assertThat(EmailNormalizer.normalize("  John.Doe@Example.COM \t")).isEqualTo("john.doe@example.com");
+    }
+
+    @Test
+    void returnsCanonicalInputUnchanged() {
+        String email = "john.doe@example.com";
+
+        assertThat(EmailNormalizer.normalize(email)).isSameAs(email);
+    }
+
+    @Test
+    void treatsNullAndBlankAsEmpty() {
+        assertThat(EmailNormalizer.normalize((String) null)).isEmpty();
+        assertThat(EmailNormalizer.normalize(" \n ")).isEmpty();
+    }
+
+    @Test
+    void lowerCasesNonAsciiCharacters() {
+        assertThat(EmailNormalizer.normalize("ÉLODIE@Exemple.fr")).isEqualTo("élodie@exemple.fr");
+    }
+
+    @Test
+    void ignoresTheDefaultLocale() {
+        Locale original = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+        try {
+            assertThat(EmailNormalizer.normalize("IVAN@MAIL.IO")).isEqualTo("ivan@mail.io");
+            assertThat(normalizeChars("IVAN@MAIL.IO")).isEqualTo("ivan@mail.io");
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+
+    @Test
+    void normalizesASliceOfABufferWithoutModifyingIt() {
+        char[] buffer = "{\"email\":\" Jane@Example.com \"}".toCharArray();
+        String before = new String(buffer);
+
+        assertThat(EmailNormalizer.normalize(buffer, 10, 18)).isEqualTo("jane@example.com");
+        assertThat(new String(buffer)).isEqualTo(before);
+    }
+
+    @Test
+    void bufferAndStringFormsAgree() {
+        for (String email : new String[] {"a@b.c", " A@B.C ", "Ünal@Örnek.com", "", "   "}) {
+            assertThat(normalizeChars(email)).isEqualTo(EmailNormalizer.normalize(email));
+        }
+    }
+
+    private static String normalizeChars(String value) {
+        return EmailNormalizer.normalize(value.toCharArray(), 0, value.length());
+    }
+}